@@ -0,0 +1,80 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * EventAllocationBenchmark: runs the same simulation with and without event pooling
+ * and reports the bytes allocated, the garbage collections and the events per second of each run.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public final class EventAllocationBenchmark {
+
+    private EventAllocationBenchmark () {}
+
+    /**
+     * Returns the total number of garbage collections so far.
+     */
+    private static long getCollectionCount () {
+	long count = 0;
+	for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+	    count += Math.max(0, gc.getCollectionCount());
+	}
+	return count;
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or -1 if not supported by the JVM.
+     */
+    private static long getAllocatedBytes () {
+	ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+	if (threads instanceof com.sun.management.ThreadMXBean) {
+	    return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+	return -1;
+    }
+
+    /**
+     * Runs the simulation and prints the allocation statistics.
+     */
+    private static void measure (Simulation sim, String label) {
+	System.gc();
+	long gcs = getCollectionCount();
+	long bytes = getAllocatedBytes();
+	long start = System.nanoTime();
+	sim.run();
+	double elapsed = (System.nanoTime() - start) / 1e9;
+	bytes = getAllocatedBytes() - bytes;
+	gcs = getCollectionCount() - gcs;
+	long num_events = sim.event_handler.getNumEvents();
+	System.out.format("%s: %d events %.3f s %.0f events/s allocated %.1f MB (%.1f bytes/event, %.1f MB/s) GCs %d %n",
+			  label, num_events, elapsed, num_events / elapsed, bytes / 1e6, (double) bytes / num_events, bytes / 1e6 / elapsed, gcs);
+    }
+
+    /**
+     * Main method.
+     * Usage: java EventAllocationBenchmark config_file [simulation_length]
+     */
+    public static void main (String[] args) throws IOException {
+	if (args.length < 1) {
+	    EnergyAwareBaseStationSimulator.printError("Usage: java EventAllocationBenchmark config_file [simulation_length]");
+	}
+	Simulation sim = new Simulation();
+	sim.readConfig(new BufferedReader(new FileReader(args[0])));
+	sim.simulation_length = args.length > 1 ? Double.parseDouble(args[1]) : 1e7;
+
+	// Warm-up
+	Simulation warmup = sim.copy();
+	warmup.simulation_length = sim.simulation_length / 10;
+	warmup.run();
+
+	sim.event_pooling = false;
+	measure(sim, "Allocated events");
+	sim.event_pooling = true;
+	measure(sim, "Pooled events");
+    }
+}
@@ -0,0 +1,84 @@
+package es.uvigo.det.labredes.bs;
+
+import java.lang.reflect.Method;
+
+/**
+ * EventDispatchBenchmark: compares the former reflective event dispatch
+ * (a Method lookup by name plus Method.invoke per event) with the typed
+ * dispatch through {@link Event#dispatch}.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public final class EventDispatchBenchmark {
+
+    /**
+     * Event handler that only counts the events received.
+     */
+    public static final class CountingHandler implements EventHandler {
+	public long count;
+	public void handleTaskArrivalEvent (TaskArrivalEvent event) { count++; }
+	public void handleTaskDropEvent (TaskDropEvent event) { count++; }
+	public void handleTaskServiceEvent (TaskServiceEvent event) { count++; }
+	public void handleStateTransitionEvent (StateTransitionEvent event) { count++; }
+    }
+
+    private EventDispatchBenchmark () {}
+
+    /**
+     * Dispatches the events as the reflective event handler used to do.
+     */
+    private static void reflectiveDispatch (Event[] events, CountingHandler handler, int rounds) throws Exception {
+	for (int r = 0; r < rounds; r++) {
+	    for (Event event : events) {
+		Method handler_method = handler.getClass().getMethod("handle" + event.getClass().getSimpleName(), event.getClass());
+		handler_method.invoke(handler, event);
+	    }
+	}
+    }
+
+    /**
+     * Dispatches the events through the typed dispatch method.
+     */
+    private static void typedDispatch (Event[] events, CountingHandler handler, int rounds) {
+	for (int r = 0; r < rounds; r++) {
+	    for (Event event : events) {
+		event.dispatch(handler);
+	    }
+	}
+    }
+
+    /**
+     * Main method.
+     * Usage: java EventDispatchBenchmark [rounds]
+     */
+    public static void main (String[] args) throws Exception {
+	int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+	Event[] events = new Event[1000];
+	for (int i = 0; i < events.length; i++) {
+	    switch (i % 4) {
+	    case 0: events[i] = new TaskArrivalEvent(i, i, 1); break;
+	    case 1: events[i] = new TaskServiceEvent(i, i, 1); break;
+	    case 2: events[i] = new StateTransitionEvent(i, BaseStationState.SLEEP); break;
+	    default: events[i] = new TaskDropEvent(i, i); break;
+	    }
+	}
+	CountingHandler handler = new CountingHandler();
+
+	// Warm-up
+	reflectiveDispatch(events, handler, rounds / 10);
+	typedDispatch(events, handler, rounds / 10);
+
+	long start = System.nanoTime();
+	reflectiveDispatch(events, handler, rounds);
+	double reflective_time = (System.nanoTime() - start) / 1e9;
+	start = System.nanoTime();
+	typedDispatch(events, handler, rounds);
+	double typed_time = (System.nanoTime() - start) / 1e9;
+
+	long num_events = (long) rounds * events.length;
+	System.out.format("Reflective dispatch: %.3f s %.0f events/s %n", reflective_time, num_events / reflective_time);
+	System.out.format("Typed dispatch: %.3f s %.0f events/s %n", typed_time, num_events / typed_time);
+	System.out.format("Speedup: %.1f %n", reflective_time / typed_time);
+    }
+}
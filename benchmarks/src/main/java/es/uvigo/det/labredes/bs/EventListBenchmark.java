@@ -0,0 +1,74 @@
+package es.uvigo.det.labredes.bs;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * EventListBenchmark: measures the cost of one hold operation (poll the
+ * next event and schedule a new one) on the event list for every future
+ * event set implementation and several event set sizes.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventListBenchmark {
+    /**
+     * Number of pending events kept in the event list.
+     */
+    @Param({"10", "1000", "100000"})
+    public int depth;
+    /**
+     * Future event set implementation.
+     */
+    @Param({"binaryheap", "pairingheap", "calendarqueue"})
+    public String engine;
+
+    private static final int NUM_INCREMENTS = 1 << 16;
+    private EventList event_list;
+    private double[] increments;
+    private int next_increment;
+    private long next_task_id;
+
+    @Setup
+    public void setup () {
+	Simulation sim = new Simulation();
+	sim.event_set = engine;
+	event_list = new EventList(Double.MAX_VALUE, sim.createFutureEventSet(), new EventPool(false));
+	Random rng = new Random(1);
+	increments = new double[NUM_INCREMENTS];
+	for (int i = 0; i < NUM_INCREMENTS; i++) {
+	    increments[i] = -Math.log(1 - rng.nextDouble()) * depth;
+	}
+	for (int i = 0; i < depth; i++) {
+	    event_list.addEvent(new TaskArrivalEvent(increments[i], next_task_id++, 1));
+	}
+	next_increment = depth % NUM_INCREMENTS;
+    }
+
+    @Benchmark
+    public Event hold () {
+	Event event = event_list.getNextEvent(true);
+	double t = event.time + increments[next_increment];
+	next_increment = (next_increment + 1) & (NUM_INCREMENTS - 1);
+	event_list.addEvent(new TaskArrivalEvent(t, next_task_id++, 1));
+	return event;
+    }
+}
@@ -0,0 +1,65 @@
+package es.uvigo.det.labredes.bs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * GeneratorBenchmark: measures the cost of drawing one interarrival time
+ * and one service time for every supported distribution.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmark {
+    /**
+     * Task arrival distribution.
+     */
+    @Param({"deterministic", "poisson", "pareto", "dynpoisson"})
+    public String task_distribution;
+    /**
+     * Service time distribution.
+     */
+    @Param({"deterministic", "uniform", "exponential", "lognormal"})
+    public String service_time_distribution;
+
+    private TaskGenerator task_generator;
+    private ServiceTimeGenerator service_time_generator;
+
+    @Setup
+    public void setup () {
+	Simulation sim = new Simulation();
+	sim.task_distribution = task_distribution;
+	sim.service_time_distribution = service_time_distribution;
+	task_generator = sim.createTaskGenerator();
+	task_generator.setSeed(1);
+	service_time_generator = sim.createServiceTimeGenerator(task_generator);
+	service_time_generator.setSeed(2);
+    }
+
+    @Benchmark
+    public double nextArrival () {
+	return task_generator.getNextArrival();
+    }
+
+    @Benchmark
+    public double nextServiceTime () {
+	return service_time_generator.getNextServiceTime();
+    }
+}
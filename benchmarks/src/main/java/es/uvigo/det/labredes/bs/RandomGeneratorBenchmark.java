@@ -0,0 +1,57 @@
+package es.uvigo.det.labredes.bs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * RandomGeneratorBenchmark: measures the throughput of the getNextArrival
+ * path of the task generators with every random number generator algorithm.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomGeneratorBenchmark {
+    /**
+     * Random number generator algorithm.
+     */
+    @Param({"Random", "SplittableRandom", "L64X128MixRandom", "Xoshiro256PlusPlus"})
+    public String rng_algorithm;
+    /**
+     * Task arrival distribution.
+     */
+    @Param({"poisson", "pareto"})
+    public String task_distribution;
+
+    private TaskGenerator task_generator;
+
+    @Setup
+    public void setup () {
+	Simulation sim = new Simulation();
+	sim.rng_algorithm = rng_algorithm;
+	sim.task_distribution = task_distribution;
+	task_generator = sim.createTaskGenerator();
+	task_generator.setRandomGenerator(sim.createRandomGenerator(0));
+    }
+
+    @Benchmark
+    public double nextArrival () {
+	return task_generator.getNextArrival();
+    }
+}
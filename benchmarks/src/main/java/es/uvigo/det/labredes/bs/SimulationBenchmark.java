@@ -0,0 +1,84 @@
+package es.uvigo.det.labredes.bs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SimulationBenchmark: measures complete simulation runs of every sleeping
+ * scheme. The number of processed events is reported as an auxiliary
+ * counter, so JMH also prints the event throughput.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulationBenchmark {
+    /**
+     * Sleeping scheme.
+     */
+    @Param({"single", "multiple", "coalescing"})
+    public String scheme;
+    /**
+     * Simulation length (in seconds).
+     */
+    @Param({"100000"})
+    public double length;
+
+    private Simulation sim;
+
+    /**
+     * Number of events processed, reported by JMH as events per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class EventCounter {
+	public long events;
+
+	@Setup(Level.Iteration)
+	public void reset () {
+	    events = 0;
+	}
+    }
+
+    @Setup
+    public void setup () {
+	sim = new Simulation();
+	sim.simulation_length = length;
+	sim.task_distribution = "poisson";
+	sim.arrival_rate = 0.5;
+	sim.service_time_distribution = "exponential";
+	sim.service_time = 1;
+	sim.active_consumption = 224;
+	sim.idle_consumption = 130;
+	sim.sleep_consumption = 75;
+	sim.transition_consumption = 260;
+	sim.active_to_sleep_t = 0;
+	sim.sleep_to_active_t = 5;
+	sim.scheme = scheme;
+    }
+
+    @Benchmark
+    public SimulationResults run (EventCounter counter) {
+	SimulationResults results = sim.run();
+	counter.events += sim.event_handler.getNumEvents();
+	return results;
+    }
+}
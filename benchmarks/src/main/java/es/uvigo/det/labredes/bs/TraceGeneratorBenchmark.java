@@ -0,0 +1,94 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TraceGeneratorBenchmark: measures the cost of replaying one task (arrival
+ * time and service demand) from a binary or CSV trace, to be compared with
+ * the poisson generator of GeneratorBenchmark.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TraceGeneratorBenchmark {
+    /**
+     * Format of the trace file.
+     */
+    @Param({"binary", "csv"})
+    public String format;
+    /**
+     * Number of tasks in the trace.
+     */
+    @Param({"1000000"})
+    public int num_tasks;
+
+    private File trace_file;
+    private TraceTaskGenerator task_generator;
+
+    @Setup
+    public void setup () throws IOException {
+	trace_file = File.createTempFile("trace", "." + format);
+	trace_file.deleteOnExit();
+	Random rng = new Random(1);
+	double t = 0;
+	if (format.equals("binary")) {
+	    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(trace_file)));
+	    out.writeInt(TraceTaskGenerator.MAGIC);
+	    out.writeInt(TraceTaskGenerator.RECORD_SIZE);
+	    for (int i = 0; i < num_tasks; i++) {
+		t += -Math.log(rng.nextDouble()) / 0.25;
+		out.writeDouble(t);
+		out.writeDouble(-Math.log(rng.nextDouble()));
+	    }
+	    out.close();
+	} else {
+	    Writer out = new BufferedWriter(new FileWriter(trace_file));
+	    out.write("arrival_time,service_demand\n");
+	    for (int i = 0; i < num_tasks; i++) {
+		t += -Math.log(rng.nextDouble()) / 0.25;
+		out.write(t + "," + (-Math.log(rng.nextDouble())) + "\n");
+	    }
+	    out.close();
+	}
+	task_generator = new TraceTaskGenerator(trace_file.getPath(), format.equals("binary"));
+    }
+
+    @TearDown
+    public void tearDown () {
+	task_generator.close();
+	trace_file.delete();
+    }
+
+    @Benchmark
+    public double nextTask () {
+	double t = task_generator.getNextArrival();
+	if (t == Double.POSITIVE_INFINITY) {
+	    // Replay the trace again
+	    task_generator.close();
+	    task_generator = new TraceTaskGenerator(trace_file.getPath(), format.equals("binary"));
+	    t = task_generator.getNextArrival();
+	}
+	return t + task_generator.service_demand;
+    }
+}
@@ -0,0 +1,152 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class estimates the average task delay, power consumption and transitions rate of a base station
+ * without simulating it, modeling it as an M/G/1 queue with exhaustive service and generalized vacations.
+ *
+ * A cycle starts when the server empties the queue. If a task arrives within the inactivity time, it is
+ * served at once. Otherwise, the server goes to sleep (the vacation) until the scheme wakes it up and
+ * serves all the tasks that arrived meanwhile. By the Fuhrmann-Cooper decomposition, the task delay is
+ * the M/G/1 waiting time plus the time-averaged number of tasks waiting during the vacations divided by
+ * the arrival rate. The model only applies to Poisson arrivals, a single server, an unbounded queue without
+ * deadlines and the built-in schemes with a static coalescing threshold.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class AnalyticalModel {
+    /**
+     * True if the model applies to the simulation parameters.
+     */
+    public boolean applicable;
+    /**
+     * Estimated average task delay (in seconds).
+     */
+    public double task_delay;
+    /**
+     * Estimated average power consumption (in Watts and normalized).
+     */
+    public double power_consumption, norm_power_consumption;
+    /**
+     * Estimated transitions rate (in number of transitions per hour).
+     */
+    public double transitions_rate;
+
+    /**
+     * Creates the analytical estimates for the parameters of the specified simulation.
+     *
+     * @param sim the simulation
+     */
+    public AnalyticalModel (Simulation sim) {
+	double lambda = sim.arrival_rate;
+	double b = sim.service_time;
+	double rho = lambda * b;
+	applicable = sim.task_distribution.equals("poisson") && !sim.service_time_distribution.equals("trace") &&
+	    sim.num_servers == 1 && sim.always_on_servers == 0 && sim.queue_capacity == 0 && !sim.drop_policy.equals("deadline") && rho < 1 && !sim.dynamic_qth &&
+	    (sim.scheme.equals("single") || sim.scheme.equals("multiple") || sim.scheme.equals("coalescing"));
+	if (!applicable) {
+	    return;
+	}
+
+	// Second moment of the service time
+	double b2 = b * b;
+	if (sim.service_time_distribution.equals("uniform")) {
+	    b2 += sim.uniform_range * sim.uniform_range / 12.0;
+	} else if (sim.service_time_distribution.equals("exponential")) {
+	    b2 *= 2;
+	} else if (sim.service_time_distribution.equals("lognormal")) {
+	    b2 += sim.var_service_time;
+	}
+
+	// Inactivity period: a task arrives before its end with probability 1 - q
+	double q = Math.exp(-lambda * sim.inactivity_t);
+	double idle = (1 - q) / lambda;
+
+	// Vacation: time asleep, time idle after waking up, integral of the waiting tasks and wake-ups
+	double t2s = sim.active_to_sleep_t;
+	double t2a = sim.sleep_to_active_t;
+	double sleep = 0, idle_after = 0, area = 0, wakeups = 1;
+	if (sim.scheme.equals("single")) {
+	    sleep = sim.sleeping_t;
+	    area = lambda * (t2s + sleep) * (t2s + sleep) / 2;
+	    idle_after = Math.exp(-lambda * (t2s + sleep + t2a)) / lambda;
+	} else if (sim.scheme.equals("multiple")) {
+	    double first_empty = Math.exp(-lambda * (t2s + sim.sleeping_t));
+	    double again = first_empty / (1 - Math.exp(-lambda * sim.sleeping_t));
+	    wakeups = 1 + again;
+	    sleep = wakeups * sim.sleeping_t;
+	    area = lambda * (t2s + sim.sleeping_t) * (t2s + sim.sleeping_t) / 2 + lambda * sim.sleeping_t * sim.sleeping_t / 2 * again;
+	} else {
+	    // The server sleeps while fewer than qth tasks wait and, with a time threshold, the first one has not waited that long
+	    int qth = sim.sleep_to_active_qth;
+	    double tth = sim.sleep_to_active_tth;
+	    double u = Math.max(t2s, tth);
+	    double[] cdf_t2s = poissonCdf(qth, lambda * t2s);
+	    double[] cdf_u = poissonCdf(qth, lambda * u);
+	    double[] pmf_tth = poissonPmf(qth, lambda * tth);
+	    area = lambda * t2s * t2s / 2;
+	    for (int n = 0; n < qth; n++) {
+		// Expected time asleep with n waiting tasks
+		double time_n = cdf_t2s[n] / lambda;
+		if (tth > 0) {
+		    time_n = (cdf_t2s[n] - cdf_u[n]) / lambda + Math.exp(-lambda * (u - tth)) * pmf_tth[n] / lambda;
+		}
+		sleep += time_n;
+		area += n * time_n;
+	    }
+	}
+	// The tasks that arrived before the wake-up and during the transition to active wait for it
+	area += lambda * (t2s + sleep) * t2a + lambda * t2a * t2a / 2;
+
+	// Cycle: inactivity, vacation (with probability q) and busy period
+	double vacation = idle + q * (t2s + sleep + t2a + idle_after);
+	double busy = lambda * vacation * b / (1 - rho);
+	double cycle = vacation + busy;
+	task_delay = lambda * b2 / (2 * (1 - rho)) + q * area / (lambda * vacation);
+	power_consumption = (busy * sim.active_consumption + (idle + q * idle_after) * sim.idle_consumption +
+			     q * (t2s + t2a) * sim.transition_consumption + q * sleep * sim.sleep_consumption) / cycle;
+	norm_power_consumption = power_consumption / (rho * sim.active_consumption + (1 - rho) * sim.idle_consumption);
+	transitions_rate = q * wakeups * 3600.0 / cycle;
+    }
+
+    /**
+     * Returns the probabilities of 0 to n - 1 arrivals of a Poisson distribution.
+     *
+     * @param n the number of probabilities
+     * @param m the mean of the distribution
+     */
+    private static double[] poissonPmf (int n, double m) {
+	double[] pmf = new double[n];
+	double log_p = -m;
+	for (int j = 0; j < n; j++) {
+	    if (j > 0) {
+		log_p += Math.log(m) - Math.log(j);
+	    }
+	    pmf[j] = Math.exp(log_p);
+	}
+	return pmf;
+    }
+
+    /**
+     * Returns the probabilities of at most 0 to n - 1 arrivals of a Poisson distribution.
+     *
+     * @param n the number of probabilities
+     * @param m the mean of the distribution
+     */
+    private static double[] poissonCdf (int n, double m) {
+	double[] cdf = poissonPmf(n, m);
+	for (int j = 1; j < n; j++) {
+	    cdf[j] = Math.min(1, cdf[j - 1] + cdf[j]);
+	}
+	return cdf;
+    }
+
+    /**
+     * Prints on standard output the estimates.
+     */
+    public void print () {
+	System.out.format("Analytical task delay: %.3f %n", task_delay);
+	System.out.format("Analytical power consumption: %.4f %.4f %n", power_consumption, norm_power_consumption);
+	System.out.format("Analytical transitions rate: %.4f %n", transitions_rate);
+    }
+}
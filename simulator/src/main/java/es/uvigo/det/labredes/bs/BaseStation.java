@@ -0,0 +1,749 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class simulates an energy aware base station.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class BaseStation implements EventHandler, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The simulation this base station belongs to.
+     */
+    public Simulation sim;
+    /**
+     * The index of this base station in the event list handlers (0 if it is the only one).
+     */
+    public int cell;
+    /**
+     * The pool that creates the events.
+     */
+    private EventPool pool;
+    /**
+     * The energy management policy that decides when the servers sleep and wake up.
+     */
+    private final SleepPolicy policy;
+    /**
+     * The task generator.
+     */
+    public TaskGenerator task_generator;
+    /**
+     * The service time generator.
+     */
+    public ServiceTimeGenerator service_time_generator;
+    /**
+     * The task queue.
+     */
+    public TaskQueue queue;
+    /**
+     * The amount of tasks stored in the task queue.
+     */
+    public int queue_size;
+    /**
+     * The maximum amount of tasks that can be stored in the task queue (0 if unbounded).
+     */
+    public int max_queue_size;
+    /**
+     * The drop policy: waiting tasks are dropped when their deadline expires (deadline), and the oldest
+     * task is dropped instead of the new one when the queue is full (drophead).
+     */
+    private final boolean drop_expired, drop_head;
+    /**
+     * The current queue threshold to wake up from the sleep mode (coalescing scheme).
+     */
+    public int sleep_to_active_qth;
+    /**
+     * The state of each server.
+     */
+    private BaseStationState[] states;
+    /**
+     * Handles of the pending transitions to sleep and to active of each server, kept to cancel them.
+     */
+    private List<List<Event>> sleep_transitions, active_transitions;
+    /**
+     * The task being served by each server (-1 if none), and its arrival time.
+     */
+    private long[] serving_task_id;
+    private double[] serving_arrival_time;
+    /**
+     * True for the servers committed to serve a waiting task, i.e. idle servers about to start serving
+     * and sleeping servers waking up. The waiting tasks not covered by them may wake up other servers.
+     */
+    private boolean[] committed;
+    private int num_committed;
+    /**
+     * The sampler of the time series of the base station metrics (null if disabled).
+     */
+    private MetricsSampler sampler;
+    /**
+     * The steady-state estimator (null if disabled).
+     */
+    private SteadyStateEstimator steady_state;
+    /**
+     * The tasks handed over to other cells, pending delivery (null if handover is disabled).
+     */
+    private List<TaskArrivalEvent> outbox;
+    /**
+     * The cell to which new tasks are handed over.
+     */
+    private int handover_cell;
+    /**
+     * The random number generator that decides the handovers.
+     */
+    private RandomGenerator handover_rng;
+
+    // Statistics variables
+    private long tasks_received, tasks_served, tasks_discarded, num_transitions;
+    private long tasks_handed_over, tasks_blocked, tasks_expired;
+    private double sum_tasks_delay, maximum_task_delay;
+    private DelayHistogram delay_histogram;
+    private double[] last_state_transition_time;
+    private long task_counter;
+    private long tasks_received_in_current_cycle;
+    private double prev_cycle_end_time, weighted_sum_sleep_to_active_qth;
+    private double power_ratio;
+    private double[][] time_in_states; // per server, indexed by BaseStationState ordinal
+    private double energy; // consumed up to the last state transition of each server (in Joules)
+    private final double[] state_power; // indexed by BaseStationState ordinal (in Watts)
+
+    /**
+     * Creates a new base station.
+     * Its load is simulated with the specified task and service time generators.
+     *
+     * @param s the simulation the base station belongs to
+     * @param tg the task generator
+     * @param stg the service time generator
+     */
+    public BaseStation (Simulation s, TaskGenerator tg, ServiceTimeGenerator stg) {
+	this(s, tg, stg, 0);
+    }
+
+    /**
+     * Creates a new base station that shares the event list of its simulation with other cells.
+     * Its load is simulated with the specified task and service time generators.
+     *
+     * @param s the simulation the base station belongs to
+     * @param tg the task generator
+     * @param stg the service time generator
+     * @param c the index of the cell, used to tag its events
+     */
+    public BaseStation (Simulation s, TaskGenerator tg, ServiceTimeGenerator stg, int c) {
+	sim = s;
+	cell = c;
+	pool = sim.event_handler.getPool();
+	policy = sim.createSleepPolicy();
+	task_generator = tg;
+	service_time_generator = stg;
+	max_queue_size = sim.queue_capacity;
+	drop_expired = sim.drop_policy.equals("deadline");
+	drop_head = sim.drop_policy.equals("drophead");
+	queue = max_queue_size > 0 ? new TaskQueue(max_queue_size) : new TaskQueue();
+	queue_size = 0;
+
+	states = new BaseStationState[sim.num_servers];
+	sleep_transitions = new ArrayList<List<Event>>();
+	active_transitions = new ArrayList<List<Event>>();
+	serving_task_id = new long[sim.num_servers];
+	serving_arrival_time = new double[sim.num_servers];
+	committed = new boolean[sim.num_servers];
+	num_committed = 0;
+	last_state_transition_time = new double[sim.num_servers];
+	time_in_states = new double[sim.num_servers][BaseStationState.values().length];
+	energy = 0;
+	state_power = new double[BaseStationState.values().length];
+	state_power[BaseStationState.ACTIVE_SERVE.ordinal()] = sim.active_consumption;
+	state_power[BaseStationState.ACTIVE_IDLE.ordinal()] = sim.idle_consumption;
+	state_power[BaseStationState.SLEEP.ordinal()] = sim.sleep_consumption;
+	state_power[BaseStationState.TRANSITION_TO_SLEEP.ordinal()] = sim.transition_consumption;
+	state_power[BaseStationState.TRANSITION_TO_ACTIVE.ordinal()] = sim.transition_consumption;
+	for (int i = 0; i < sim.num_servers; i++) {
+	    sleep_transitions.add(new ArrayList<Event>());
+	    active_transitions.add(new ArrayList<Event>());
+	    serving_task_id[i] = -1;
+
+	    states[i] = BaseStationState.ACTIVE_IDLE;
+	    transition(0, states[i], i);
+	    if (!isAlwaysOn(i)) {
+		trackTransition(transition(sim.inactivity_t, BaseStationState.TRANSITION_TO_SLEEP, i));
+	    }
+	}
+
+	tasks_received = tasks_served = tasks_discarded = num_transitions = 0;
+	tasks_handed_over = tasks_blocked = tasks_expired = 0;
+	outbox = null;
+	sum_tasks_delay = maximum_task_delay = 0.0;
+	delay_histogram = new DelayHistogram();
+	task_counter = 0;
+	tasks_received_in_current_cycle = 0;
+	prev_cycle_end_time = 0.0;
+	sleep_to_active_qth = sim.sleep_to_active_qth;
+	steady_state = null;
+	if (sim.steady_state_interval > 0) {
+	    steady_state = new SteadyStateEstimator(sim.steady_state_interval, sim.steady_state_precision, sim.steady_state_confidence);
+	}
+	weighted_sum_sleep_to_active_qth = 0.0;
+	sampler = null;
+	if (sim.sampling_interval > 0) {
+	    sampler = new MetricsSampler(sim.samples_file, sim.samples_binary, sim.sampling_interval, sim.num_servers);
+	}
+	power_ratio = (sim.idle_consumption - sim.sleep_consumption) / 
+	    (sim.transition_consumption - sim.idle_consumption);
+	addEvent(pool.newTaskArrivalEvent(task_generator.getNextArrival(), task_counter++, service_time_generator.getNextServiceTime()));
+    }
+
+    /**
+     * Handles the specified task arrival event.
+     *
+     * @param event the TaskArrivalEvent to be handled
+     */
+    public void handleTaskArrivalEvent (TaskArrivalEvent event) {
+	if (sampler != null) {
+	    sample(event.time);
+	}
+	if (!event.handover && outbox != null && handover_rng.nextDouble() < sim.handover_probability) {
+	    TaskArrivalEvent task = new TaskArrivalEvent(event.time + sim.handover_delay, event.task_id, event.task_stime);
+	    task.cell = handover_cell;
+	    task.handover = true;
+	    outbox.add(task);
+	    tasks_handed_over++;
+	    addEvent(pool.newTaskArrivalEvent(task_generator.getNextArrival(), task_counter++, service_time_generator.getNextServiceTime()));
+	    return;
+	}
+	tasks_received++;
+	if (drop_expired) {
+	    dropExpiredTasks(event.time);
+	}
+	if (max_queue_size > 0 && queue_size >= max_queue_size) {
+	    tasks_blocked++;
+	    if (drop_head && !queue.isEmpty()) {
+		// The oldest waiting task makes room for the new one
+		addEvent(pool.newTaskDropEvent(event.time, queue.peekTaskId()));
+		queue.dequeue();
+		queue_size--;
+	    }
+	}
+        if (max_queue_size == 0 || queue_size + 1 <= max_queue_size) {
+            queue_size++;
+	    if (sim.dynamic_qth) {
+		tasks_received_in_current_cycle++;
+	    }
+	    queue.enqueue(event.task_id, event.time, event.task_stime);
+	    if (sim.simulation_verbose) {
+		event.print(this);
+            }
+	    if (sim.trace != null) {
+		event.trace(this, sim.trace);
+	    }
+        } else {
+	    addEvent(pool.newTaskDropEvent(event.time, event.task_id));
+        }
+
+	if (!event.handover) {
+	    addEvent(pool.newTaskArrivalEvent(task_generator.getNextArrival(), task_counter++, service_time_generator.getNextServiceTime()));
+	}
+	if (getUncoveredTasks() == 1) {
+	    int s = findServer(BaseStationState.ACTIVE_IDLE);
+	    if (s >= 0) {
+		if (sim.inactivity_t > 0) {
+		    cancelNextTransition(sleep_transitions.get(s));
+		}
+		setCommitted(s, true);
+		transition(event.time, BaseStationState.ACTIVE_SERVE, s);
+	    }
+	}
+	policy.taskArrived(this, event.time);
+    }
+
+    /**
+     * Enables the handover of new tasks to the specified cell. Each new task is handed over with the
+     * configured probability and arrives at the other cell after the handover delay.
+     *
+     * @param out  the list where the handed over tasks are left for delivery
+     * @param c    the cell to which new tasks are handed over
+     */
+    public void enableHandover (List<TaskArrivalEvent> out, int c) {
+	outbox = out;
+	handover_cell = c;
+	handover_rng = sim.createRandomGenerator(2);
+    }
+
+    /**
+     * Receives a task handed over from another cell. The task gets a new identifier in this cell.
+     *
+     * @param task the TaskArrivalEvent of the handed over task
+     */
+    public void receiveTask (TaskArrivalEvent task) {
+	task.task_id = task_counter++;
+	addEvent(task);
+    }
+
+    /**
+     * Handles the specified task drop event.
+     *
+     * @param event the TaskDropEvent to be handled
+     */
+    public void handleTaskDropEvent (TaskDropEvent event) {
+	if (sampler != null) {
+	    sample(event.time);
+	}
+        tasks_discarded++;
+	if (sim.simulation_verbose) {
+	    event.print(this);
+        }
+	if (sim.trace != null) {
+	    event.trace(this, sim.trace);
+	}
+    }
+
+    /**
+     * Handles the specified task service event.
+     *
+     * @param event the TaskServiceEvent to be handled
+     */
+    public void handleTaskServiceEvent (TaskServiceEvent event) {
+	if (sampler != null) {
+	    sample(event.time);
+	}
+	int s = event.server;
+	if (serving_task_id[s] < 0 || serving_task_id[s] != event.task_id) {
+	    event.print(this);
+            EnergyAwareBaseStationSimulator.printError("Trying to serve an invalid task!");
+        }
+	queue_size--;
+        tasks_served++;
+	double current_task_delay = event.time - serving_arrival_time[s] - event.task_stime;
+	serving_task_id[s] = -1;
+        if (current_task_delay > maximum_task_delay) {
+            maximum_task_delay = current_task_delay;
+        }
+        sum_tasks_delay += current_task_delay;
+	delay_histogram.record(current_task_delay);
+	if (steady_state != null) {
+	    steady_state.advance(event.time, getPowerConsumption());
+	    steady_state.addTaskDelay(current_task_delay);
+	}
+	if (drop_expired) {
+	    dropExpiredTasks(event.time);
+	}
+	if (!queue.isEmpty()) {
+	    startService(s, event.time, queue.peekServiceTime());
+	} else {
+	    if (sim.inactivity_t > 0 || isAlwaysOn(s)) {
+		transition(event.time, BaseStationState.ACTIVE_IDLE, s);
+	    }
+	    if (!isAlwaysOn(s)) {
+		trackTransition(transition(event.time + sim.inactivity_t, BaseStationState.TRANSITION_TO_SLEEP, s));
+	    }
+	}
+	policy.taskServed(this, s, event.time);
+	if (sim.simulation_verbose) {
+	    event.print(this);
+        }
+	if (sim.trace != null) {
+	    event.trace(this, sim.trace);
+	}
+    }
+
+    /**
+     * Handles the specified state transition event.
+     *
+     * @param event the StateTransitionEvent to be handled
+     */
+    public void handleStateTransitionEvent (StateTransitionEvent event) {
+	if (sampler != null) {
+	    sample(event.time);
+	}
+	int s = event.server;
+	untrackTransition(event);
+
+	if (event.new_state == BaseStationState.ACTIVE_SERVE) {
+	    setCommitted(s, false);
+	    if (drop_expired) {
+		dropExpiredTasks(event.time);
+	    }
+	    if (!queue.isEmpty()) {
+		startService(s, event.time, queue.peekServiceTime());
+	    }
+	} else if (event.new_state == BaseStationState.TRANSITION_TO_ACTIVE) {
+	    setCommitted(s, false);
+	    num_transitions++;
+	}
+	event.new_state = policy.stateChanged(this, s, event.new_state, event.time);
+	if (event.new_state == BaseStationState.ACTIVE_SERVE && !isServing(s)) {
+	    EnergyAwareBaseStationSimulator.printError("Trying to activate the base station with no task to serve!");
+	} else if (event.new_state == BaseStationState.TRANSITION_TO_SLEEP) {
+	    transition(event.time + sim.active_to_sleep_t, BaseStationState.SLEEP, s);
+	} else if (event.new_state == BaseStationState.TRANSITION_TO_ACTIVE) {
+	    setCommitted(s, true);
+	    transition(event.time + sim.sleep_to_active_t, BaseStationState.ACTIVE_SERVE, s);
+	}
+
+	if (steady_state != null) {
+	    steady_state.advance(event.time, getPowerConsumption());
+	    if (steady_state.isPrecisionReached()) {
+		sim.event_handler.stop();
+	    }
+	}
+	int o = states[s].ordinal();
+	time_in_states[s][o] += event.time - last_state_transition_time[s];
+	energy += (event.time - last_state_transition_time[s]) * state_power[o];
+	states[s] = event.new_state;
+	last_state_transition_time[s] = event.time;
+	if (sim.simulation_verbose) {
+	    event.print(this);
+        }
+	if (sim.trace != null) {
+	    event.trace(this, sim.trace);
+	}
+    }
+
+    /**
+     * Writes the snapshots of the metrics due up to the specified instant. Snapshots are taken lazily, when
+     * the first event after them is handled, so they show the base station just before that instant.
+     *
+     * @param t current time
+     */
+    private void sample (double t) {
+	while (sampler.next_time <= t) {
+	    sampler.write(queue_size, states, getEnergyConsumption(sampler.next_time), tasks_served, sleep_to_active_qth);
+	}
+    }
+
+    /**
+     * Writes the snapshots of the metrics due up to the end of the simulation and closes the samples file.
+     */
+    public void finishSampling () {
+	if (sampler != null) {
+	    sample(sim.event_handler.getEndTime());
+	    sampler.close();
+	    sampler = null;
+	}
+    }
+
+    /**
+     * Returns the energy consumed by all the servers up to the specified instant.
+     *
+     * @param t current time (not earlier than the last state transition)
+     * @return the energy consumption (in Joules)
+     */
+    private double getEnergyConsumption (double t) {
+	double e = energy;
+	for (int s = 0; s < states.length; s++) {
+	    e += (t - last_state_transition_time[s]) * state_power[states[s].ordinal()];
+	}
+	return e;
+    }
+
+    /**
+     * Tags the specified event with the cell of this base station and adds it to the event list.
+     *
+     * @param event the Event to be added
+     * @return the handle returned by the event list
+     */
+    private Event addEvent (Event event) {
+	event.cell = cell;
+	return sim.event_handler.addEvent(event);
+    }
+
+    /**
+     * Adds a transition of the specified server to the specified state.
+     *
+     * @param t  instant at which the server changes its state
+     * @param st new state of the server
+     * @param s  the server
+     * @return the handle returned by the event list
+     */
+    private Event transition (double t, BaseStationState st, int s) {
+	StateTransitionEvent event = pool.newStateTransitionEvent(t, st);
+	event.server = s;
+	return addEvent(event);
+    }
+
+    /**
+     * Starts serving the task at the head of the queue on the specified server.
+     *
+     * @param s     the server
+     * @param t     instant at which the service starts
+     * @param stime time required to serve the task
+     */
+    private void startService (int s, double t, double stime) {
+	serving_task_id[s] = queue.peekTaskId();
+	serving_arrival_time[s] = queue.peekArrivalTime();
+	queue.dequeue();
+	TaskServiceEvent event = pool.newTaskServiceEvent(t + stime, serving_task_id[s], stime);
+	event.server = s;
+	addEvent(event);
+    }
+
+    /**
+     * Drops the waiting tasks that have been waiting longer than the maximum waiting time.
+     * As the queue is FIFO, the expired tasks are always at its head.
+     *
+     * @param t current time
+     */
+    private void dropExpiredTasks (double t) {
+	while (!queue.isEmpty() && t - queue.peekArrivalTime() > sim.max_waiting_time) {
+	    addEvent(pool.newTaskDropEvent(t, queue.peekTaskId()));
+	    queue.dequeue();
+	    queue_size--;
+	    tasks_expired++;
+	}
+    }
+
+    /**
+     * Adapts the coalescing queue threshold to the arrival rate measured since its previous adaptation,
+     * so that the average task delay approaches the target delay.
+     *
+     * @param t current time
+     */
+    public void updateSleepToActiveQth (double t) {
+	double avg_arrival_rate = tasks_received_in_current_cycle / (t - prev_cycle_end_time);
+	weighted_sum_sleep_to_active_qth += sleep_to_active_qth * (t - prev_cycle_end_time);
+	prev_cycle_end_time = t;
+	tasks_received_in_current_cycle = 0;
+	sleep_to_active_qth = (int) Math.ceil(avg_arrival_rate * (2.0 * sim.target_delay - sim.sleep_to_active_t));
+	if (sleep_to_active_qth < 1) {
+	    sleep_to_active_qth = 1;
+	}
+	if (max_queue_size > 0 && sleep_to_active_qth > max_queue_size) {
+	    // The queue cannot hold more tasks
+	    sleep_to_active_qth = max_queue_size;
+	}
+    }
+
+    /**
+     * Wakes up the specified server at the specified instant. The server is not committed to serve any task,
+     * so the waiting tasks may still wake up other servers.
+     *
+     * @param s the sleeping server
+     * @param t instant at which the server starts its transition to active
+     */
+    public void scheduleWakeUp (int s, double t) {
+	trackTransition(transition(t, BaseStationState.TRANSITION_TO_ACTIVE, s));
+    }
+
+    /**
+     * Wakes up the specified server right now to serve the waiting tasks, replacing its pending wake-up.
+     *
+     * @param s the sleeping server
+     * @param t current time
+     */
+    public void wakeUpNow (int s, double t) {
+	cancelNextTransition(active_transitions.get(s));
+	setCommitted(s, true);
+	trackTransition(transition(t, BaseStationState.TRANSITION_TO_ACTIVE, s));
+    }
+
+    /**
+     * Sends the specified server to sleep at the specified instant, unless it never sleeps.
+     *
+     * @param s the server
+     * @param t instant at which the server starts its transition to sleep
+     */
+    public void scheduleSleep (int s, double t) {
+	if (!isAlwaysOn(s)) {
+	    trackTransition(transition(t, BaseStationState.TRANSITION_TO_SLEEP, s));
+	}
+    }
+
+    /**
+     * Returns true if the specified server is serving a task.
+     */
+    public boolean isServing (int s) {
+	return serving_task_id[s] >= 0;
+    }
+
+    /**
+     * Returns true if the specified server never sleeps.
+     */
+    private boolean isAlwaysOn (int s) {
+	return s < sim.always_on_servers;
+    }
+
+    /**
+     * Returns the number of waiting tasks not covered by a committed server.
+     */
+    public int getUncoveredTasks () {
+	return queue.size() - num_committed;
+    }
+
+    /**
+     * Marks the specified server as committed (or not) to serve a waiting task.
+     */
+    private void setCommitted (int s, boolean c) {
+	if (committed[s] != c) {
+	    committed[s] = c;
+	    num_committed += c ? 1 : -1;
+	}
+    }
+
+    /**
+     * Returns the first server in the specified state not committed to serve a waiting task, or -1 if none.
+     */
+    public int findServer (BaseStationState st) {
+	for (int s = 0; s < states.length; s++) {
+	    if (states[s] == st && !committed[s]) {
+		return s;
+	    }
+	}
+	return -1;
+    }
+
+    /**
+     * Returns the first server going to sleep or sleeping with no pending transition to active, or -1 if none.
+     */
+    public int findSleepingServer () {
+	for (int s = 0; s < states.length; s++) {
+	    if ((states[s] == BaseStationState.TRANSITION_TO_SLEEP || states[s] == BaseStationState.SLEEP) && !committed[s] &&
+		!hasPendingTransition(active_transitions.get(s))) {
+		return s;
+	    }
+	}
+	return -1;
+    }
+
+    /**
+     * Returns the power consumed by all the servers in their current states.
+     *
+     * @return the power consumption (in Watts)
+     */
+    private double getPowerConsumption () {
+	double power = 0;
+	for (BaseStationState st : states) {
+	    power += state_power[st.ordinal()];
+	}
+	return power;
+    }
+
+    /**
+     * Keeps the handle of the specified transition event so that it can be cancelled later.
+     *
+     * @param handle the scheduled StateTransitionEvent (null if it was not scheduled)
+     */
+    private void trackTransition (Event handle) {
+	if (handle == null) {
+	    return;
+	}
+	StateTransitionEvent transition = (StateTransitionEvent) handle;
+	List<Event> handles = (transition.new_state == BaseStationState.TRANSITION_TO_SLEEP ? sleep_transitions : active_transitions).get(transition.server);
+	for (int i = handles.size() - 1; i >= 0; i--) {
+	    if (!handles.get(i).scheduled) {
+		handles.remove(i);
+	    }
+	}
+	if (!handles.contains(handle)) {
+	    handles.add(handle);
+	}
+    }
+
+    /**
+     * Forgets the handle of the specified transition event once it has been handled.
+     *
+     * @param handle the handled StateTransitionEvent
+     */
+    private void untrackTransition (Event handle) {
+	StateTransitionEvent transition = (StateTransitionEvent) handle;
+	List<Event> handles = (transition.new_state == BaseStationState.TRANSITION_TO_SLEEP ? sleep_transitions : active_transitions).get(transition.server);
+	for (int i = handles.size() - 1; i >= 0; i--) {
+	    if (handles.get(i) == handle) {
+		handles.remove(i);
+	    }
+	}
+    }
+
+    /**
+     * Returns true if any of the specified handles is still scheduled.
+     *
+     * @param handles the handles of the pending transitions
+     * @return true if a transition is pending
+     */
+    private boolean hasPendingTransition (List<Event> handles) {
+	for (Event handle : handles) {
+	    if (handle.scheduled) {
+		return true;
+	    }
+	}
+	return false;
+    }
+
+    /**
+     * Cancels the next pending transition among the specified handles.
+     *
+     * @param handles the handles of the pending transitions
+     * @return true if a transition was cancelled
+     */
+    private boolean cancelNextTransition (List<Event> handles) {
+	Event next = null;
+	for (int i = handles.size() - 1; i >= 0; i--) {
+	    Event handle = handles.get(i);
+	    if (!handle.scheduled) {
+		handles.remove(i);
+	    } else if (next == null || handle.precedes(next)) {
+		next = handle;
+	    }
+	}
+	if (next == null) {
+	    return false;
+	}
+	handles.remove(next);
+	return sim.event_handler.cancelEvent(next);
+    }
+
+    /**
+     * Returns the statistics collected by the base station up to the end of the simulation.
+     *
+     * @return the simulation results
+     */
+    public SimulationResults getResults () {
+	SimulationResults results = new SimulationResults();
+	double end_time = sim.event_handler.getEndTime();
+	results.simulation_length = end_time;
+	results.tasks_received = tasks_received;
+	results.tasks_served = tasks_served;
+	results.tasks_discarded = tasks_discarded;
+	results.tasks_handed_over = tasks_handed_over;
+	results.tasks_blocked = tasks_blocked;
+	results.tasks_expired = tasks_expired;
+	results.blocking_probability = tasks_received > 0 ? (double) tasks_blocked / tasks_received : 0;
+	results.average_task_delay = tasks_served > 0 ? sum_tasks_delay / tasks_served : 0;
+	results.maximum_task_delay = maximum_task_delay;
+	results.setDelayHistogram(delay_histogram, sim.delay_percentiles);
+
+	results.time_in_states = new double[BaseStationState.values().length];
+	results.server_time_in_states = new double[sim.num_servers][];
+	for (int s = 0; s < sim.num_servers; s++) {
+	    double[] t = new double[BaseStationState.values().length];
+	    System.arraycopy(time_in_states[s], 0, t, 0, t.length);
+	    t[states[s].ordinal()] += end_time - last_state_transition_time[s];
+	    results.server_time_in_states[s] = t;
+	    for (int i = 0; i < t.length; i++) {
+		results.time_in_states[i] += t[i] / sim.num_servers;
+	    }
+	}
+	results.power_consumption = getEnergyConsumption(end_time) / end_time;
+	double rho = task_generator.task_rate * service_time_generator.service_time;
+	double reference_power = rho * sim.active_consumption + (sim.num_servers - rho) * sim.idle_consumption;
+	results.norm_power_consumption = results.power_consumption / reference_power;
+
+	results.dynamic_qth = sim.dynamic_qth;
+	if (sim.dynamic_qth) {
+	    results.average_sleep_to_active_qth = (weighted_sum_sleep_to_active_qth + sleep_to_active_qth * (end_time - prev_cycle_end_time)) / end_time;
+	} else {
+	    results.average_sleep_to_active_qth = sleep_to_active_qth;
+	}
+	results.transitions_rate = num_transitions * 3600.0 / end_time;
+
+	if (steady_state != null) {
+	    steady_state.advance(end_time, getPowerConsumption());
+	    steady_state.estimate(reference_power, results);
+	}
+	return results;
+    }
+}
@@ -0,0 +1,122 @@
+package es.uvigo.det.labredes.bs;
+
+import java.util.Arrays;
+
+/**
+ * This class implements FutureEventSet interface with an array-based binary heap.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class BinaryHeapEventSet implements FutureEventSet {
+    /**
+     * The heap of events.
+     */
+    private Event[] heap;
+    /**
+     * The number of events stored in the heap.
+     */
+    private int size;
+
+    /**
+     * Creates a new empty binary heap of events.
+     */
+    public BinaryHeapEventSet () {
+	heap = new Event[64];
+	size = 0;
+    }
+
+    /**
+     * Adds the specified event to the heap.
+     *
+     * @param event the Event to be added
+     */
+    public void add (Event event) {
+	if (size == heap.length) {
+	    heap = Arrays.copyOf(heap, 2 * size);
+	}
+	siftUp(size, event);
+	size++;
+    }
+
+    /**
+     * Returns the next event without removing it from the heap.
+     *
+     * @return the next event or null if the heap is empty
+     */
+    public Event peek () {
+	return size == 0 ? null : heap[0];
+    }
+
+    /**
+     * Removes and returns the next event.
+     *
+     * @return the next event or null if the heap is empty
+     */
+    public Event poll () {
+	if (size == 0) {
+	    return null;
+	}
+	Event event = heap[0];
+	size--;
+	Event last = heap[size];
+	heap[size] = null;
+	if (size > 0) {
+	    siftDown(0, last);
+	}
+	return event;
+    }
+
+    /**
+     * Returns the number of events stored in the heap.
+     *
+     * @return the number of events stored in the heap
+     */
+    public int size () {
+	return size;
+    }
+
+    /**
+     * Returns an array containing all the events stored in the heap.
+     *
+     * @return an array containing all the events stored in the heap
+     */
+    public Event[] toArray () {
+	return Arrays.copyOf(heap, size);
+    }
+
+    /**
+     * Moves up the specified event from the specified position until the heap order is restored.
+     */
+    private void siftUp (int i, Event event) {
+	while (i > 0) {
+	    int parent = (i - 1) >>> 1;
+	    if (!event.precedes(heap[parent])) {
+		break;
+	    }
+	    heap[i] = heap[parent];
+	    i = parent;
+	}
+	heap[i] = event;
+    }
+
+    /**
+     * Moves down the specified event from the specified position until the heap order is restored.
+     */
+    private void siftDown (int i, Event event) {
+	int half = size >>> 1;
+	while (i < half) {
+	    int child = 2 * i + 1;
+	    int right = child + 1;
+	    if (right < size && heap[right].precedes(heap[child])) {
+		child = right;
+	    }
+	    if (!heap[child].precedes(event)) {
+		break;
+	    }
+	    heap[i] = heap[child];
+	    i = child;
+	}
+	heap[i] = event;
+    }
+}
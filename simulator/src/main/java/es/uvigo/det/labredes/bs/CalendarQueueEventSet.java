@@ -0,0 +1,372 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class implements FutureEventSet interface with a calendar queue
+ * (R. Brown, "Calendar queues: a fast O(1) priority queue implementation
+ * for the simulation event set problem", Communications of the ACM, 1988).
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class CalendarQueueEventSet implements FutureEventSet {
+    /**
+     * Number of operations between two checks of the average operation cost.
+     */
+    private static final int COST_CHECK_PERIOD = 1024;
+    /**
+     * Average number of nodes and buckets visited per operation above which the bucket width is recalibrated.
+     */
+    private static final int MAX_AVERAGE_COST = 8;
+
+    /**
+     * A node of the sorted list stored in each bucket.
+     */
+    private static final class Node {
+	Event event;
+	Node next;
+
+	Node (Event e, Node n) {
+	    event = e;
+	    next = n;
+	}
+    }
+
+    /**
+     * The buckets (days) of the calendar.
+     */
+    private Node[] buckets;
+    /**
+     * The last node of each bucket, so that simultaneous events are appended in constant time.
+     */
+    private Node[] tails;
+    /**
+     * Recycled nodes, linked through their next field.
+     */
+    private Node free_nodes;
+    /**
+     * The width of each bucket (in seconds).
+     */
+    private double width;
+    /**
+     * The number of events stored in the calendar.
+     */
+    private int size;
+    /**
+     * The bucket holding the last dequeued event.
+     */
+    private int last_bucket;
+    /**
+     * The upper limit of the last bucket in the current year.
+     */
+    private double bucket_top;
+    /**
+     * The time of the last dequeued event.
+     */
+    private double last_time;
+    /**
+     * The calendar is resized when its size crosses these thresholds.
+     */
+    private int top_threshold, bottom_threshold;
+    /**
+     * If false resizing is disabled (while sampling the calendar).
+     */
+    private boolean resize_enabled;
+    /**
+     * Operations since the last cost check and nodes and buckets visited by them.
+     * The calendar is only resized when its size changes, so a width sampled from a burst of
+     * simultaneous events (e.g. many cells starting at instant 0) would otherwise be kept forever.
+     */
+    private int num_operations;
+    private long cost;
+
+    /**
+     * Creates a new empty calendar queue of events.
+     */
+    public CalendarQueueEventSet () {
+	size = 0;
+	resize_enabled = true;
+	init(2, 1.0, 0.0);
+    }
+
+    /**
+     * Adds the specified event to the calendar.
+     *
+     * @param event the Event to be added
+     */
+    public void add (Event event) {
+	if (event.time < last_time) {
+	    // Earlier than the last dequeued event (e.g. a cancelled one discarded ahead of time): move back
+	    long n = (long) (event.time / width);
+	    last_time = event.time;
+	    last_bucket = (int) (n % buckets.length);
+	    bucket_top = (n + 1) * width + 0.5 * width;
+	}
+	int i = bucketOf(event.time);
+	Node node = buckets[i];
+	if (node == null) {
+	    buckets[i] = tails[i] = newNode(event, null);
+	} else if (!event.precedes(tails[i].event)) {
+	    tails[i] = tails[i].next = newNode(event, null);
+	} else if (event.precedes(node.event)) {
+	    buckets[i] = newNode(event, node);
+	} else {
+	    while (node.next != null && !event.precedes(node.next.event)) {
+		node = node.next;
+		cost++;
+	    }
+	    node.next = newNode(event, node.next);
+	}
+	size++;
+	if (resize_enabled) {
+	    if (size > top_threshold) {
+		resize(2 * buckets.length);
+	    } else {
+		checkCost();
+	    }
+	}
+    }
+
+    /**
+     * Returns the next event without removing it from the calendar.
+     *
+     * @return the next event or null if the calendar is empty
+     */
+    public Event peek () {
+	if (size == 0) {
+	    return null;
+	}
+	return buckets[findNextBucket(false)].event;
+    }
+
+    /**
+     * Removes and returns the next event.
+     *
+     * @return the next event or null if the calendar is empty
+     */
+    public Event poll () {
+	if (size == 0) {
+	    return null;
+	}
+	int i = findNextBucket(true);
+	Node head = buckets[i];
+	Event event = head.event;
+	buckets[i] = head.next;
+	if (head.next == null) {
+	    tails[i] = null;
+	}
+	freeNode(head);
+	size--;
+	last_time = event.time;
+	if (resize_enabled) {
+	    if (size < bottom_threshold) {
+		resize(buckets.length / 2);
+	    } else {
+		checkCost();
+	    }
+	}
+	return event;
+    }
+
+    /**
+     * Returns the number of events stored in the calendar.
+     *
+     * @return the number of events stored in the calendar
+     */
+    public int size () {
+	return size;
+    }
+
+    /**
+     * Returns an array containing all the events stored in the calendar.
+     *
+     * @return an array containing all the events stored in the calendar
+     */
+    public Event[] toArray () {
+	Event[] events = new Event[size];
+	int n = 0;
+	for (int i = 0; i < buckets.length; i++) {
+	    for (Node node = buckets[i]; node != null; node = node.next) {
+		events[n++] = node.event;
+	    }
+	}
+	return events;
+    }
+
+    /**
+     * Returns a node, recycled if possible.
+     */
+    private Node newNode (Event event, Node next) {
+	Node node = free_nodes;
+	if (node == null) {
+	    return new Node(event, next);
+	}
+	free_nodes = node.next;
+	node.event = event;
+	node.next = next;
+	return node;
+    }
+
+    /**
+     * Recycles the specified node.
+     */
+    private void freeNode (Node node) {
+	node.event = null;
+	node.next = free_nodes;
+	free_nodes = node;
+    }
+
+    /**
+     * Initializes an empty calendar with the specified number of buckets and bucket width,
+     * starting at the specified instant.
+     */
+    private void init (int nbuckets, double bwidth, double start_time) {
+	buckets = new Node[nbuckets];
+	tails = new Node[nbuckets];
+	width = bwidth;
+	last_time = start_time;
+	long n = (long) (start_time / width);
+	last_bucket = (int) (n % nbuckets);
+	bucket_top = (n + 1) * width + 0.5 * width;
+	top_threshold = 2 * nbuckets;
+	bottom_threshold = nbuckets / 2 - 2;
+    }
+
+    /**
+     * Returns the bucket in which an event occurring at the specified instant is stored.
+     */
+    private int bucketOf (double t) {
+	return (int) ((long) (t / width) % buckets.length);
+    }
+
+    /**
+     * Returns the bucket whose head is the next event. The calendar must not be empty.
+     *
+     * @param advance if true the current position in the calendar is moved to the returned bucket
+     */
+    private int findNextBucket (boolean advance) {
+	int i = last_bucket;
+	double top = bucket_top;
+	for (int n = 0; n < buckets.length; n++) {
+	    Node node = buckets[i];
+	    if (node != null && node.event.time < top) {
+		if (advance) {
+		    last_bucket = i;
+		    bucket_top = top;
+		}
+		return i;
+	    }
+	    i++;
+	    top += width;
+	    cost++;
+	    if (i == buckets.length) {
+		i = 0;
+	    }
+	}
+	// No event in the current year: direct search for the earliest event
+	int best = -1;
+	for (i = 0; i < buckets.length; i++) {
+	    if (buckets[i] != null && (best < 0 || buckets[i].event.precedes(buckets[best].event))) {
+		best = i;
+	    }
+	}
+	if (advance) {
+	    last_bucket = best;
+	    bucket_top = ((long) (buckets[best].event.time / width) + 1) * width + 0.5 * width;
+	}
+	return best;
+    }
+
+    /**
+     * Recalibrates the bucket width if the recent operations have visited too many nodes or buckets.
+     */
+    private void checkCost () {
+	if (++num_operations < COST_CHECK_PERIOD) {
+	    return;
+	}
+	if (cost > (long) MAX_AVERAGE_COST * num_operations) {
+	    resize(buckets.length);
+	}
+	num_operations = 0;
+	cost = 0;
+    }
+
+    /**
+     * Copies all the events into a new calendar with the specified number of buckets.
+     */
+    private void resize (int nbuckets) {
+	if (nbuckets < 2) {
+	    return;
+	}
+	double new_width = sampleWidth();
+	Node[] old_buckets = buckets;
+	int old_size = size;
+	init(nbuckets, new_width, last_time);
+	resize_enabled = false;
+	size = 0;
+	for (int i = 0; i < old_buckets.length; i++) {
+	    Node node = old_buckets[i];
+	    while (node != null) {
+		Node next = node.next;
+		Event event = node.event;
+		freeNode(node);
+		add(event);
+		node = next;
+	    }
+	}
+	resize_enabled = true;
+	if (size != old_size) {
+	    EnergyAwareBaseStationSimulator.printError("Calendar queue resize lost events!");
+	}
+    }
+
+    /**
+     * Estimates a new bucket width from the separation between the next events.
+     * If the sampled events are simultaneous, the sample is enlarged until their times differ.
+     */
+    private double sampleWidth () {
+	int nsamples = size < 5 ? size : (size < 250 ? 5 + size / 10 : 25);
+	double new_width = sampleWidth(nsamples);
+	while (new_width == 0 && nsamples < size) {
+	    nsamples = (int) Math.min(4L * nsamples, size);
+	    new_width = sampleWidth(nsamples);
+	}
+	return new_width > 0 ? new_width : width;
+    }
+
+    /**
+     * Estimates a new bucket width from the separation between the specified number of next events.
+     * Returns 0 if the sampled events are simultaneous.
+     */
+    private double sampleWidth (int nsamples) {
+	if (nsamples < 2) {
+	    return width;
+	}
+	// Dequeue the sample without modifying the calendar state
+	int saved_bucket = last_bucket;
+	double saved_top = bucket_top, saved_time = last_time;
+	resize_enabled = false;
+	Event[] sample = new Event[nsamples];
+	for (int i = 0; i < nsamples; i++) {
+	    sample[i] = poll();
+	}
+	for (int i = nsamples - 1; i >= 0; i--) {
+	    add(sample[i]);
+	}
+	resize_enabled = true;
+	last_bucket = saved_bucket;
+	bucket_top = saved_top;
+	last_time = saved_time;
+
+	double avg = (sample[nsamples - 1].time - sample[0].time) / (nsamples - 1);
+	double sum = 0;
+	int n = 0;
+	for (int i = 1; i < nsamples; i++) {
+	    double sep = sample[i].time - sample[i - 1].time;
+	    if (sep <= 2 * avg) {
+		sum += sep;
+		n++;
+	    }
+	}
+	return n > 0 ? 3.0 * sum / n : 0;
+    }
+}
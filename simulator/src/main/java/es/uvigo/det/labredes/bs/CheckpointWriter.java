@@ -0,0 +1,151 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class writes checkpoints of a running simulation, from which it can be resumed later.
+ * A checkpoint starts with a header (magic number and length of the snapshot) followed by the
+ * serialized simulation (its event list, base station and generators) compressed with GZIP.
+ * The snapshot is taken in the event loop, but it is compressed and written by a background thread,
+ * first to a temporary file that then replaces the previous checkpoint, so a checkpoint is never
+ * left half written.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class CheckpointWriter {
+    /**
+     * Magic number at the beginning of every checkpoint ("EBCP").
+     */
+    public static final int MAGIC = 0x45424350;
+
+    /**
+     * The name of the checkpoint file.
+     */
+    private String checkpoint_file;
+    /**
+     * The thread that writes the checkpoints.
+     */
+    private ExecutorService writer;
+    /**
+     * The checkpoint being written (null if none).
+     */
+    private Future<?> pending_write;
+
+    /**
+     * Creates a new checkpoint writer on the specified file, which is overwritten by every checkpoint.
+     *
+     * @param file the name of the checkpoint file
+     */
+    public CheckpointWriter (String file) {
+	checkpoint_file = file;
+	writer = Executors.newSingleThreadExecutor();
+	pending_write = null;
+    }
+
+    /**
+     * Takes a snapshot of the specified simulation and writes it in the background.
+     * If the previous checkpoint is still being written, waits for it first.
+     *
+     * @param sim the simulation, between two events
+     */
+    public void write (Simulation sim) {
+	ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+	try {
+	    ObjectOutputStream out = new ObjectOutputStream(snapshot);
+	    out.writeObject(sim);
+	    out.close();
+	} catch (NotSerializableException e) {
+	    EnergyAwareBaseStationSimulator.printError("Cannot checkpoint simulation: " + e.getMessage() + " is not serializable!");
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Cannot checkpoint simulation: " + e.getMessage());
+	}
+	final byte[] bytes = snapshot.toByteArray();
+	waitForWrite();
+	pending_write = writer.submit(new Runnable() {
+		public void run () {
+		    writeFile(bytes);
+		}
+	    });
+    }
+
+    /**
+     * Writes the specified snapshot to a temporary file and moves it over the checkpoint file.
+     */
+    private void writeFile (byte[] bytes) {
+	Path tmp = Paths.get(checkpoint_file + ".tmp");
+	try {
+	    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16));
+	    out.writeInt(MAGIC);
+	    out.writeInt(bytes.length);
+	    GZIPOutputStream gzip = new GZIPOutputStream(out, 1 << 16);
+	    gzip.write(bytes);
+	    gzip.close();
+	    Files.move(tmp, Paths.get(checkpoint_file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while writing checkpoint file!");
+	}
+    }
+
+    /**
+     * Waits until the checkpoint being written, if any, is in the file.
+     */
+    private void waitForWrite () {
+	if (pending_write == null) {
+	    return;
+	}
+	try {
+	    pending_write.get();
+	} catch (InterruptedException e) {
+	    EnergyAwareBaseStationSimulator.printError("Checkpoint interrupted!");
+	} catch (ExecutionException e) {
+	    EnergyAwareBaseStationSimulator.printError("Checkpoint exception: " + e.getCause());
+	}
+	pending_write = null;
+    }
+
+    /**
+     * Waits for the last checkpoint and stops the writer thread.
+     */
+    public void close () {
+	waitForWrite();
+	writer.shutdown();
+    }
+
+    /**
+     * Reads the simulation stored in the specified checkpoint file.
+     *
+     * @param file the name of the checkpoint file
+     * @return the simulation, ready to be resumed
+     */
+    public static Simulation read (String file) {
+	Simulation sim = null;
+	try {
+	    DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+	    if (in.readInt() != MAGIC) {
+		EnergyAwareBaseStationSimulator.printError("Invalid checkpoint file!");
+	    }
+	    byte[] bytes = new byte[in.readInt()];
+	    new DataInputStream(new GZIPInputStream(in, 1 << 16)).readFully(bytes);
+	    in.close();
+	    sim = (Simulation) new ObjectInputStream(new ByteArrayInputStream(bytes)).readObject();
+	} catch (FileNotFoundException e) {
+	    EnergyAwareBaseStationSimulator.printError("Checkpoint file not found!");
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Invalid checkpoint file!");
+	} catch (ClassNotFoundException e) {
+	    EnergyAwareBaseStationSimulator.printError("Invalid checkpoint file!");
+	}
+	return sim;
+    }
+}
@@ -0,0 +1,70 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class implements the task coalescing scheme: a sleeping server wakes up as soon as the waiting tasks
+ * reach the queue threshold or, if a time threshold is set, when the first of them has waited that long.
+ * With the dynamic threshold, the queue threshold is adapted at the end of every busy period.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public final class CoalescingSleepPolicy implements SleepPolicy {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Wakes up a sleeping server if the waiting tasks reach the queue threshold, or schedules its wake-up
+     * after the time threshold if the new task is the first one waiting.
+     *
+     * @param bs the base station
+     * @param t  current time
+     */
+    public void taskArrived (BaseStation bs, double t) {
+	if (bs.sim.sleep_to_active_tth > 0 && bs.getUncoveredTasks() == 1) {
+	    int s = bs.findSleepingServer();
+	    if (s >= 0) {
+		bs.scheduleWakeUp(s, t + bs.sim.sleep_to_active_tth);
+	    }
+	}
+	if (bs.getUncoveredTasks() >= bs.sleep_to_active_qth) {
+	    int s = bs.findServer(BaseStationState.SLEEP);
+	    if (s >= 0) {
+		bs.wakeUpNow(s, t);
+	    }
+	}
+    }
+
+    /**
+     * Adapts the queue threshold at the end of every busy period (dynamic threshold only).
+     *
+     * @param bs the base station
+     * @param s  the server
+     * @param t  current time
+     */
+    public void taskServed (BaseStation bs, int s, double t) {
+	if (bs.sim.dynamic_qth && bs.queue_size == 0) {
+	    bs.updateSleepToActiveQth(t);
+	}
+    }
+
+    /**
+     * Wakes up a server that has just gone to sleep if the waiting tasks already reach the queue threshold.
+     *
+     * @param bs the base station
+     * @param s  the server
+     * @param st the new state of the server
+     * @param t  current time
+     * @return the state the server actually enters
+     */
+    public BaseStationState stateChanged (BaseStation bs, int s, BaseStationState st, double t) {
+	if (st == BaseStationState.SLEEP) {
+	    if (bs.getUncoveredTasks() >= bs.sleep_to_active_qth) {
+		bs.wakeUpNow(s, t);
+	    }
+	} else if (st == BaseStationState.ACTIVE_SERVE && !bs.isServing(s)) {
+	    // The waiting tasks have been taken by other servers or have expired
+	    bs.scheduleSleep(s, t + bs.sim.inactivity_t);
+	    return BaseStationState.ACTIVE_IDLE;
+	}
+	return st;
+    }
+}
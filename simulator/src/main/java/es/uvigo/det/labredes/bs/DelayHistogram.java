@@ -0,0 +1,149 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.Serializable;
+
+/**
+ * This class estimates the quantiles of a stream of task delays in constant memory (HDR-style histogram).
+ * Each power of two is split into 2^SUB_BUCKET_BITS linear buckets, indexed straight from the bits of the
+ * double value, so quantiles are reported with a relative error below 2^-(SUB_BUCKET_BITS+1) (0.4%).
+ * The buckets of each power of two are only allocated when a value falls in it.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class DelayHistogram implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of bits of the mantissa used to index the buckets of each power of two.
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * Range of powers of two with their own buckets. Smaller values (including zero and the tiny negative
+     * delays due to rounding) are counted together and larger values go to the last bucket.
+     */
+    private static final int MIN_EXPONENT = -30, MAX_EXPONENT = 40;
+    private static final double MIN_VALUE = Math.scalb(1.0, MIN_EXPONENT);
+
+    /**
+     * The buckets of each power of two (null if still empty).
+     */
+    private long[][] buckets;
+    /**
+     * Number of values recorded and number of them below MIN_VALUE.
+     */
+    private long count, low_count;
+    /**
+     * Minimum and maximum values recorded.
+     */
+    private double min, max;
+
+    /**
+     * Creates a new empty histogram.
+     */
+    public DelayHistogram () {
+	buckets = new long[MAX_EXPONENT - MIN_EXPONENT + 1][];
+	count = low_count = 0;
+	min = Double.POSITIVE_INFINITY;
+	max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Records a new value.
+     *
+     * @param x the value (in seconds)
+     */
+    public void record (double x) {
+	count++;
+	if (x < min) {
+	    min = x;
+	}
+	if (x > max) {
+	    max = x;
+	}
+	if (!(x >= MIN_VALUE)) {
+	    low_count++;
+	    return;
+	}
+	int e = Math.getExponent(x);
+	int sub = (int) (Double.doubleToRawLongBits(x) >>> (52 - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+	if (e > MAX_EXPONENT) {
+	    e = MAX_EXPONENT;
+	    sub = SUB_BUCKETS - 1;
+	}
+	long[] b = buckets[e - MIN_EXPONENT];
+	if (b == null) {
+	    b = buckets[e - MIN_EXPONENT] = new long[SUB_BUCKETS];
+	}
+	b[sub]++;
+    }
+
+    /**
+     * Adds the values recorded by the specified histogram to this one.
+     *
+     * @param h the histogram to be merged
+     */
+    public void add (DelayHistogram h) {
+	for (int i = 0; i < buckets.length; i++) {
+	    if (h.buckets[i] != null) {
+		if (buckets[i] == null) {
+		    buckets[i] = new long[SUB_BUCKETS];
+		}
+		for (int j = 0; j < SUB_BUCKETS; j++) {
+		    buckets[i][j] += h.buckets[i][j];
+		}
+	    }
+	}
+	count += h.count;
+	low_count += h.low_count;
+	min = Math.min(min, h.min);
+	max = Math.max(max, h.max);
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return the number of values
+     */
+    public long getCount () {
+	return count;
+    }
+
+    /**
+     * Returns the estimated quantile of the recorded values: the midpoint of the bucket holding the value
+     * of rank ceil(q * count), bounded by the minimum and maximum values recorded.
+     *
+     * @param q the quantile order, between 0 and 1
+     * @return the estimated quantile (0 if no value has been recorded)
+     */
+    public double getQuantile (double q) {
+	if (count == 0) {
+	    return 0;
+	}
+	long rank = Math.max(1, (long) Math.ceil(q * count));
+	long seen = low_count;
+	if (seen >= rank) {
+	    return bound(0);
+	}
+	for (int i = 0; i < buckets.length; i++) {
+	    if (buckets[i] == null) {
+		continue;
+	    }
+	    for (int j = 0; j < SUB_BUCKETS; j++) {
+		seen += buckets[i][j];
+		if (seen >= rank) {
+		    return bound(Math.scalb(1.0 + (j + 0.5) / SUB_BUCKETS, i + MIN_EXPONENT));
+		}
+	    }
+	}
+	return max;
+    }
+
+    /**
+     * Bounds the specified value by the minimum and maximum values recorded.
+     */
+    private double bound (double x) {
+	return Math.max(min, Math.min(max, x));
+    }
+}
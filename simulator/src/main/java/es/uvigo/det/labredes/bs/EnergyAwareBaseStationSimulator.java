@@ -0,0 +1,252 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.*;
+
+/**
+ * EnergyAwareBaseStationSimulator: a Java program that simulates an energy aware base station.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public final class EnergyAwareBaseStationSimulator {
+
+    /**
+     * Number of replications of a scheme comparison if not given.
+     */
+    private static final int DEFAULT_COMPARISON_REPLICATIONS = 10;
+
+    private EnergyAwareBaseStationSimulator () {}
+
+    /**
+     * Prints on standard error the specified message and exits.
+     */
+    public static void printError (String s) {
+	System.out.flush();
+	System.err.println("ERROR: " + s);
+	System.exit(1);
+    }
+
+    /**
+     * Main method.
+     * Usage: java EnergyAwareBaseStationSimulator [-l simulation_length] [-s simulation_seed] [-f config_file] [-v] [-b trace_file] [-w sweep_file [-o csv_file]] [-n network_file [-o csv_file]] [-r replications [-e precision] [-c confidence]] [-x comparison_file [-r replications] [-c confidence]] [-m max_delay [-p percentile]] [-k checkpoint_file] [-t threads]
+     */
+    public static void main (String[] args) {
+	Simulation sim = new Simulation();
+	BufferedReader simulation_file = null;
+	BufferedReader sweep_file = null;
+	BufferedReader network_file = null;
+	BufferedReader comparison_file = null;
+	String resume_file = null;
+	PrintStream csv_file = System.out;
+	boolean csv_file_given = false;
+	int threads = Runtime.getRuntime().availableProcessors();
+	int replications = 0;
+	double precision = 0;
+	double confidence = 0.95;
+	double max_delay = 0;
+	double percentile = 0;
+
+	// Arguments parsing
+	for (int i = 0; i < args.length; i++) {
+	    if (args[i].equals("-l")) {
+		try {
+		    sim.simulation_length = Double.parseDouble(args[i+1]);
+		} catch (NumberFormatException e) {
+		    printError("Invalid simulation length!");
+		}
+		i++;
+	    } else if (args[i].equals("-s")) {
+		try {
+		    sim.simulation_seed = Integer.parseInt(args[i+1]);
+		} catch (NumberFormatException e) {
+		    printError("Invalid simulation seed!");
+		}
+		i++;
+	    } else if (args[i].equals("-f")) {
+		try {
+		    simulation_file = new BufferedReader(new FileReader(args[i+1]));
+		} catch (FileNotFoundException e) {
+		    printError("Config file not found!");
+		}
+		i++;
+	    } else if (args[i].equals("-w")) {
+		try {
+		    sweep_file = new BufferedReader(new FileReader(args[i+1]));
+		} catch (FileNotFoundException e) {
+		    printError("Sweep file not found!");
+		}
+		i++;
+	    } else if (args[i].equals("-n")) {
+		try {
+		    network_file = new BufferedReader(new FileReader(args[i+1]));
+		} catch (FileNotFoundException e) {
+		    printError("Network file not found!");
+		}
+		i++;
+	    } else if (args[i].equals("-x")) {
+		try {
+		    comparison_file = new BufferedReader(new FileReader(args[i+1]));
+		} catch (FileNotFoundException e) {
+		    printError("Comparison file not found!");
+		}
+		i++;
+	    } else if (args[i].equals("-o")) {
+		try {
+		    csv_file = new PrintStream(new BufferedOutputStream(new FileOutputStream(args[i+1])));
+		} catch (FileNotFoundException e) {
+		    printError("Cannot create CSV file!");
+		}
+		csv_file_given = true;
+		i++;
+	    } else if (args[i].equals("-t")) {
+		try {
+		    threads = Integer.parseInt(args[i+1]);
+		} catch (NumberFormatException e) {
+		    printError("Invalid number of threads!");
+		}
+		if (threads <= 0) {
+		    printError("Invalid number of threads!");
+		}
+		i++;
+	    } else if (args[i].equals("-r")) {
+		try {
+		    replications = Integer.parseInt(args[i+1]);
+		} catch (NumberFormatException e) {
+		    printError("Invalid number of replications!");
+		}
+		if (replications <= 0) {
+		    printError("Invalid number of replications!");
+		}
+		i++;
+	    } else if (args[i].equals("-e")) {
+		try {
+		    precision = Double.parseDouble(args[i+1]);
+		} catch (NumberFormatException e) {
+		    printError("Invalid target precision!");
+		}
+		if (precision < 0) {
+		    printError("Invalid target precision!");
+		}
+		i++;
+	    } else if (args[i].equals("-c")) {
+		try {
+		    confidence = Double.parseDouble(args[i+1]);
+		} catch (NumberFormatException e) {
+		    printError("Invalid confidence level!");
+		}
+		if (confidence <= 0 || confidence >= 1) {
+		    printError("Invalid confidence level!");
+		}
+		i++;
+	    } else if (args[i].equals("-m")) {
+		try {
+		    max_delay = Double.parseDouble(args[i+1]);
+		} catch (NumberFormatException e) {
+		    printError("Invalid delay bound!");
+		}
+		if (max_delay <= 0) {
+		    printError("Invalid delay bound!");
+		}
+		i++;
+	    } else if (args[i].equals("-p")) {
+		try {
+		    percentile = Double.parseDouble(args[i+1]);
+		} catch (NumberFormatException e) {
+		    printError("Invalid delay percentile!");
+		}
+		if (percentile <= 0 || percentile >= 100) {
+		    printError("Invalid delay percentile!");
+		}
+		i++;
+	    } else if (args[i].equals("-k")) {
+		if (i + 1 >= args.length) {
+		    printError("Invalid checkpoint file!");
+		}
+		resume_file = args[i+1];
+		i++;
+	    } else if (args[i].equals("-v")) {
+		sim.simulation_verbose = true;
+	    } else if (args[i].equals("-b")) {
+		if (i + 1 >= args.length) {
+		    printError("Invalid trace file!");
+		}
+		sim.trace_file = args[i+1];
+		i++;
+	    } else {
+		printError("Unknown argument: " + args[i] + "\nUsage: java EnergyAwareBaseStationSimulator [-l simulation_length] [-s simulation_seed] [-f config_file] [-v] [-b trace_file] [-w sweep_file [-o csv_file]] [-n network_file [-o csv_file]] [-r replications [-e precision] [-c confidence]] [-x comparison_file [-r replications] [-c confidence]] [-m max_delay [-p percentile]] [-k checkpoint_file] [-t threads]");
+	    }
+	}
+
+	// Config file parsing	
+	if (simulation_file != null) {
+	    sim.readConfig(simulation_file);
+	}
+
+	// Simulation resumed from a checkpoint
+	if (resume_file != null) {
+	    sim = CheckpointWriter.read(resume_file);
+	}
+
+	// Parameter sweep
+	if (sweep_file != null) {
+	    ParameterSweep sweep = new ParameterSweep(sim);
+	    sweep.readSpec(sweep_file);
+	    sweep.run(threads, csv_file);
+	    csv_file.close();
+	    return;
+	}
+
+	// Network of cells
+	if (network_file != null) {
+	    Network network = new Network(sim);
+	    network.readSpec(network_file);
+	    SimulationResults[] results = network.run(threads);
+	    if (csv_file_given) {
+		network.writeCsv(results, csv_file);
+		csv_file.close();
+	    }
+	    Network.printStatistics(results);
+	    return;
+	}
+
+	// Scheme comparison
+	if (comparison_file != null) {
+	    SchemeComparison comparison = new SchemeComparison(sim, replications > 0 ? replications : DEFAULT_COMPARISON_REPLICATIONS, confidence);
+	    comparison.readSpec(comparison_file);
+	    comparison.run(threads);
+	    comparison.printStatistics();
+	    return;
+	}
+
+	// Independent replications
+	if (replications > 0) {
+	    Replications reps = new Replications(sim, replications, precision, confidence);
+	    reps.run(threads);
+	    reps.printStatistics();
+	    return;
+	}
+
+	// Threshold optimization
+	if (max_delay > 0) {
+	    ThresholdOptimizer optimizer = new ThresholdOptimizer(sim, max_delay, percentile);
+	    optimizer.run(threads);
+	    optimizer.printStatistics();
+	    return;
+	}
+
+	// Simulation run
+	if (sim.simulation_verbose) {
+	    // Event messages are written through a buffer instead of straight to the console
+	    System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16)));
+	}
+	SimulationResults results = resume_file != null ? sim.resume() : sim.run();
+
+	// Print statistics
+	results.print();
+	AnalyticalModel model = new AnalyticalModel(sim);
+	if (model.applicable) {
+	    model.print();
+	}
+	System.out.flush();
+    }
+}
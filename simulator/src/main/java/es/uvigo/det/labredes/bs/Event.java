@@ -0,0 +1,88 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.Serializable;
+
+/**
+ * This class implements each of the simulated individual events.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+abstract public class Event<BaseStation> implements Comparable, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The instant at which the event occurs.
+     */
+    public double time;
+    /**
+     * The position of the event in the order of insertion into the event list.
+     * Used to break ties between events occurring at the same instant.
+     */
+    public long insertion_order;
+    /**
+     * True while the event is pending in the event list, i.e. it has been neither handled nor cancelled.
+     */
+    public boolean scheduled;
+    /**
+     * The index of the cell (base station) the event belongs to.
+     */
+    public int cell;
+
+    /**
+     * Creates a new event ocurring at the specified time.
+     *
+     * @param t instant at which the event occurs
+     */
+    public Event (double t) {
+	time = t;
+    }
+
+    /**
+     * Compares two events based on the instant at which each event occurs.
+     *
+     * @param event the Event to be compared
+     * @return 0 if both the specified event and this event occur at the same instant; -1 if this event is later than the specified event; and +1 if this event is earlier than the specified event
+     */
+    public int compareTo (Object event) {	
+	if (((Event) event).time > this.time) {
+	    return 1;
+	} else if (((Event) event).time < this.time) {
+	    return -1;
+	}
+	return 0;	
+    }
+
+    /**
+     * Checks whether this event must be handled before the specified one.
+     * Events occurring at the same instant are handled in order of insertion.
+     *
+     * @param event the Event to be compared
+     * @return true if this event must be handled before the specified event
+     */
+    public boolean precedes (Event event) {
+	return time < event.time || (time == event.time && insertion_order < event.insertion_order);
+    }
+
+    /**
+     * Dispatches this event to the corresponding method of the specified handler.
+     *
+     * @param handler the EventHandler that handles this event
+     */
+    abstract public void dispatch (EventHandler handler);
+
+    /**
+     * Prints on standard output a message describing this event.
+     *
+     * @param bs the base station that handles the event
+     */
+    abstract public void print (BaseStation bs);
+
+    /**
+     * Writes a binary record describing this event.
+     *
+     * @param bs    the base station that handles the event
+     * @param trace the TraceWriter of the simulation
+     */
+    abstract public void trace (BaseStation bs, TraceWriter trace);
+}
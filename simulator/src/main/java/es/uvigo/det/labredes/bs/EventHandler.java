@@ -0,0 +1,38 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This interface defines the methods that handle each type of simulated event.
+ * Events are delivered to their handler by {@link Event#dispatch}.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public interface EventHandler {
+    /**
+     * Handles the specified task arrival event.
+     *
+     * @param event the TaskArrivalEvent to be handled
+     */
+    void handleTaskArrivalEvent (TaskArrivalEvent event);
+
+    /**
+     * Handles the specified task drop event.
+     *
+     * @param event the TaskDropEvent to be handled
+     */
+    void handleTaskDropEvent (TaskDropEvent event);
+
+    /**
+     * Handles the specified task service event.
+     *
+     * @param event the TaskServiceEvent to be handled
+     */
+    void handleTaskServiceEvent (TaskServiceEvent event);
+
+    /**
+     * Handles the specified state transition event.
+     *
+     * @param event the StateTransitionEvent to be handled
+     */
+    void handleStateTransitionEvent (StateTransitionEvent event);
+}
@@ -0,0 +1,276 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * This class implements a discrete sequence of events sorted by event time.
+ * Events occurring at the same instant are handled in order of insertion.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class EventList implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The future event set storing the pending events (serialized as its implementation class and events).
+     */
+    private transient FutureEventSet events;
+    /**
+     * The pending events, used to discard duplicated events.
+     */
+    private PendingEventSet pending;
+    /**
+     * The pool that creates and recycles events.
+     */
+    private EventPool pool;
+    /**
+     * The number of events added to the event list so far.
+     */
+    private long num_events_added;
+    /**
+     * The current instant of time.
+     */
+    private double simulation_time;
+    /**
+     * The end of time.
+     */
+    private double end_time;
+    /**
+     * The handlers to which events are dispatched, indexed by event cell.
+     */
+    private EventHandler[] handlers;
+    /**
+     * True if the simulation has been stopped before the end of time.
+     */
+    private boolean stopped;
+
+    /**
+     * Creates a new list of events stored in a binary heap.
+     *
+     * @param t the end of time
+     */
+    public EventList(double t) {
+	this(t, new BinaryHeapEventSet());
+    }
+
+    /**
+     * Creates a new list of events stored in the specified future event set.
+     *
+     * @param t   the end of time
+     * @param fes the future event set storing the pending events
+     */
+    public EventList(double t, FutureEventSet fes) {
+	this(t, fes, new EventPool(false));
+    }
+
+    /**
+     * Creates a new list of events stored in the specified future event set, recycling events through the specified pool.
+     *
+     * @param t    the end of time
+     * @param fes  the future event set storing the pending events
+     * @param p    the pool that creates and recycles events
+     */
+    public EventList(double t, FutureEventSet fes, EventPool p) {
+	events = fes;
+	pool = p;
+	pending = new PendingEventSet();
+	num_events_added = 0;
+	stopped = false;
+	simulation_time = 0;
+	end_time = t;
+    }
+
+    /**
+     * Adds the specified event to the event list at the right position.
+     * If an equal event is already pending, the specified event is discarded
+     * (and recycled, so it must not be used after this call).
+     *
+     * @param event the Event to be added
+     * @return a handle to the scheduled event, that can be passed to cancelEvent, or null if the event occurs after the end of time
+     */
+    public Event addEvent (Event event) {
+	if (event.time < simulation_time) {
+	    EnergyAwareBaseStationSimulator.printError("Trying to add an event with an invalid event time!");
+	}
+	if (event.time > end_time) {
+	    pool.release(event);
+	    return null;
+	}
+	Event scheduled = pending.putIfAbsent(event);
+	if (scheduled != null) {
+	    pool.release(event);
+	    return scheduled;
+	}
+
+	event.insertion_order = num_events_added++;
+	event.scheduled = true;
+	events.add(event);
+	return event;
+    }
+
+    /**
+     * Cancels the specified pending event. The event is discarded lazily when it reaches the head of the list.
+     *
+     * @param event the handle returned by addEvent
+     * @return true if the event was pending and has been cancelled
+     */
+    public boolean cancelEvent (Event event) {
+	if (event == null || !event.scheduled) {
+	    return false;
+	}
+	event.scheduled = false;
+	pending.remove(event);
+	return true;
+    }
+
+    /**
+     * Sets the handler to which events are dispatched.
+     *
+     * @param h the EventHandler
+     */
+    public void setEventHandler (EventHandler h) {
+	handlers = new EventHandler[] {h};
+    }
+
+    /**
+     * Sets the handlers to which events are dispatched. Each event is dispatched to the handler of its cell.
+     *
+     * @param h the EventHandlers, indexed by cell
+     */
+    public void setEventHandlers (EventHandler[] h) {
+	handlers = h;
+    }
+
+    /**
+     * Returns the pool that creates and recycles events.
+     *
+     * @return the event pool
+     */
+    public EventPool getPool () {
+	return pool;
+    }
+
+    /**
+     * Returns the number of events added to the event list so far.
+     *
+     * @return the number of events added
+     */
+    public long getNumEvents () {
+	return num_events_added;
+    }
+
+    /**
+     * Returns the end of time.
+     *
+     * @return the end of time
+     */
+    public double getEndTime () {
+	return end_time;
+    }
+
+    /**
+     * Stops the simulation at the time of the last event handled. No more events are returned.
+     */
+    public void stop () {
+	end_time = simulation_time;
+	stopped = true;
+    }
+
+    /**
+     * Returns the time of the last event handled.
+     *
+     * @return the time of the last event handled
+     */
+    public double getSimulationTime () {
+	return simulation_time;
+    }
+
+    /**
+     * Returns the next event in the event list.
+     *
+     * @param remove if true the event is removed from the list
+     * @return the next event in this event list or null if the list is empty
+     */
+    public Event getNextEvent (boolean remove) {
+	if (stopped) {
+	    return null;
+	}
+	Event event = events.peek();
+	while (event != null && !event.scheduled) {
+	    // Discard cancelled events
+	    pool.release(events.poll());
+	    event = events.peek();
+	}
+	if (event != null && remove) {
+	    events.poll();
+	    event.scheduled = false;
+	    pending.remove(event);
+	}
+	return event;
+    }
+
+    /**
+     * Dispatches the specified event to the event handler of its cell.
+     * The event is recycled afterwards, so handlers must not keep references to it.
+     *
+     * @param event the Event to be handled
+     */
+    public void handleEvent (Event event) {
+	simulation_time = event.time;
+	event.dispatch(handlers[event.cell]);
+	pool.release(event);
+    }
+
+    /**
+     * Writes the state of the event list, with the implementation of the future event set and its events.
+     */
+    private void writeObject (ObjectOutputStream out) throws IOException {
+	out.defaultWriteObject();
+	out.writeObject(events.getClass());
+	out.writeObject(events.toArray());
+    }
+
+    /**
+     * Reads the state of the event list, adding the events to a new future event set of the same implementation.
+     * Events are returned in the same order, which only depends on their times and insertion order.
+     */
+    private void readObject (ObjectInputStream in) throws IOException, ClassNotFoundException {
+	in.defaultReadObject();
+	Class<?> fes_class = (Class<?>) in.readObject();
+	try {
+	    events = (FutureEventSet) fes_class.getDeclaredConstructor().newInstance();
+	} catch (ReflectiveOperationException e) {
+	    throw new InvalidClassException(fes_class.getName(), "cannot create future event set");
+	}
+	for (Event event : (Event[]) in.readObject()) {
+	    events.add(event);
+	}
+    }
+
+    /**
+     * Prints on standard output a message for each event contained in the event list.
+     *
+     * @param bs the base station that handles the events
+     */
+    @SuppressWarnings("unchecked") // the events are stored as raw Events, but all of them are handled by a BaseStation
+    public void print (BaseStation bs) {
+	Event[] sorted = events.toArray();
+	Arrays.sort(sorted, new Comparator<Event>() {
+		public int compare (Event e1, Event e2) {
+		    return e1.precedes(e2) ? -1 : (e2.precedes(e1) ? 1 : 0);
+		}
+	    });
+	for (int i = 0; i < sorted.length; i++) {
+	    if (sorted[i].scheduled) {
+		sorted[i].print(bs);
+	    }
+	}
+    }
+}
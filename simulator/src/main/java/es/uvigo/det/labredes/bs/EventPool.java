@@ -0,0 +1,160 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * This class creates the simulated events. If pooling is enabled, handled events
+ * are recycled from per-type free lists instead of being allocated.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class EventPool implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * If true handled events are recycled.
+     */
+    private boolean pooling;
+    /**
+     * The free events of each type.
+     */
+    private TaskArrivalEvent[] arrivals;
+    private TaskServiceEvent[] services;
+    private TaskDropEvent[] drops;
+    private StateTransitionEvent[] transitions;
+    private int num_arrivals, num_services, num_drops, num_transitions;
+
+    /**
+     * Creates a new event pool.
+     *
+     * @param p if true handled events are recycled
+     */
+    public EventPool (boolean p) {
+	pooling = p;
+	arrivals = new TaskArrivalEvent[16];
+	services = new TaskServiceEvent[16];
+	drops = new TaskDropEvent[16];
+	transitions = new StateTransitionEvent[16];
+	num_arrivals = num_services = num_drops = num_transitions = 0;
+    }
+
+    /**
+     * Returns true if handled events are recycled.
+     *
+     * @return true if pooling is enabled
+     */
+    public boolean isPooling () {
+	return pooling;
+    }
+
+    /**
+     * Returns a task arrival event.
+     *
+     * @param t     instant at which the new task arrives
+     * @param tid   identifier of the new task
+     * @param stime time required to serve the new task
+     * @return the TaskArrivalEvent
+     */
+    public TaskArrivalEvent newTaskArrivalEvent (double t, long tid, double stime) {
+	if (num_arrivals == 0) {
+	    return new TaskArrivalEvent(t, tid, stime);
+	}
+	TaskArrivalEvent event = arrivals[--num_arrivals];
+	arrivals[num_arrivals] = null;
+	event.time = t;
+	event.task_id = tid;
+	event.task_stime = stime;
+	event.handover = false;
+	return event;
+    }
+
+    /**
+     * Returns a task service event.
+     *
+     * @param t     instant at which the service of the task finishes
+     * @param tid   identifier of the task served
+     * @param stime time required to serve the task
+     * @return the TaskServiceEvent
+     */
+    public TaskServiceEvent newTaskServiceEvent (double t, long tid, double stime) {
+	if (num_services == 0) {
+	    return new TaskServiceEvent(t, tid, stime);
+	}
+	TaskServiceEvent event = services[--num_services];
+	services[num_services] = null;
+	event.time = t;
+	event.task_id = tid;
+	event.task_stime = stime;
+	return event;
+    }
+
+    /**
+     * Returns a task drop event.
+     *
+     * @param t   instant at which the new arriving task is discarded
+     * @param tid identifier of the discarded task
+     * @return the TaskDropEvent
+     */
+    public TaskDropEvent newTaskDropEvent (double t, long tid) {
+	if (num_drops == 0) {
+	    return new TaskDropEvent(t, tid);
+	}
+	TaskDropEvent event = drops[--num_drops];
+	drops[num_drops] = null;
+	event.time = t;
+	event.task_id = tid;
+	return event;
+    }
+
+    /**
+     * Returns a state transition event.
+     *
+     * @param t     instant at which the base station changes its state
+     * @param state new state of the base station
+     * @return the StateTransitionEvent
+     */
+    public StateTransitionEvent newStateTransitionEvent (double t, BaseStationState state) {
+	if (num_transitions == 0) {
+	    return new StateTransitionEvent(t, state);
+	}
+	StateTransitionEvent event = transitions[--num_transitions];
+	transitions[num_transitions] = null;
+	event.time = t;
+	event.new_state = state;
+	return event;
+    }
+
+    /**
+     * Returns the specified event to the pool. The event must be neither pending nor referenced anymore.
+     *
+     * @param event the Event to be recycled
+     */
+    public void release (Event event) {
+	if (!pooling) {
+	    return;
+	}
+	if (event instanceof TaskArrivalEvent) {
+	    if (num_arrivals == arrivals.length) {
+		arrivals = Arrays.copyOf(arrivals, 2 * num_arrivals);
+	    }
+	    arrivals[num_arrivals++] = (TaskArrivalEvent) event;
+	} else if (event instanceof TaskServiceEvent) {
+	    if (num_services == services.length) {
+		services = Arrays.copyOf(services, 2 * num_services);
+	    }
+	    services[num_services++] = (TaskServiceEvent) event;
+	} else if (event instanceof StateTransitionEvent) {
+	    if (num_transitions == transitions.length) {
+		transitions = Arrays.copyOf(transitions, 2 * num_transitions);
+	    }
+	    transitions[num_transitions++] = (StateTransitionEvent) event;
+	} else if (event instanceof TaskDropEvent) {
+	    if (num_drops == drops.length) {
+		drops = Arrays.copyOf(drops, 2 * num_drops);
+	    }
+	    drops[num_drops++] = (TaskDropEvent) event;
+	}
+    }
+}
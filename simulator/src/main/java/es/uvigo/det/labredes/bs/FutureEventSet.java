@@ -0,0 +1,46 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This interface defines the data structure that stores the pending events of a simulation.
+ * Implementations must return events ordered by time and, for events occurring at the
+ * same instant, by insertion order (see {@link Event#precedes}).
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public interface FutureEventSet {
+    /**
+     * Adds the specified event to the set.
+     *
+     * @param event the Event to be added
+     */
+    void add (Event event);
+
+    /**
+     * Returns the next event without removing it from the set.
+     *
+     * @return the next event or null if the set is empty
+     */
+    Event peek ();
+
+    /**
+     * Removes and returns the next event.
+     *
+     * @return the next event or null if the set is empty
+     */
+    Event poll ();
+
+    /**
+     * Returns the number of events stored in the set.
+     *
+     * @return the number of events stored in the set
+     */
+    int size ();
+
+    /**
+     * Returns an array containing all the events stored in the set, in no particular order.
+     *
+     * @return an array containing all the events stored in the set
+     */
+    Event[] toArray ();
+}
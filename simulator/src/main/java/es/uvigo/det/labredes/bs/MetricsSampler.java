@@ -0,0 +1,139 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes periodic snapshots of a base station: amount of tasks in the base station, state of each
+ * server, cumulative energy consumption, tasks served and coalescing queue threshold.
+ * Snapshots are written as CSV rows or as binary records: a header (magic number and number of servers) followed
+ * by time (double), queue size (int), energy (double), tasks served (long), queue threshold (int) and the
+ * BaseStationState ordinal of each server (one byte per server), all in big-endian byte order.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class MetricsSampler {
+    /**
+     * Magic number at the beginning of every binary samples file ("EBSM").
+     */
+    public static final int MAGIC = 0x4542534d;
+    /**
+     * Size of the buffer of the binary samples file (in bytes).
+     */
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Time between snapshots (in seconds).
+     */
+    private double interval;
+    /**
+     * Index of the next snapshot and the instant at which it must be taken.
+     */
+    private long next_sample;
+    public double next_time;
+    /**
+     * The CSV writer (null if binary).
+     */
+    private Writer csv;
+    /**
+     * The channel of the binary samples file and its buffer (null if CSV).
+     */
+    private FileChannel channel;
+    private ByteBuffer buffer;
+
+    /**
+     * Creates a new sampler that writes to the specified file, which is overwritten.
+     *
+     * @param samples_file the name of the samples file
+     * @param binary       true to write binary records instead of CSV rows
+     * @param dt           time between snapshots (in seconds)
+     * @param num_servers  number of servers of the base station
+     */
+    public MetricsSampler (String samples_file, boolean binary, double dt, int num_servers) {
+	interval = dt;
+	next_sample = 0;
+	next_time = 0;
+	try {
+	    if (binary) {
+		channel = FileChannel.open(Paths.get(samples_file), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		buffer.putInt(MAGIC).putInt(num_servers);
+	    } else {
+		csv = new BufferedWriter(new FileWriter(samples_file), 1 << 16);
+		csv.write("time,queue_size");
+		for (int s = 0; s < num_servers; s++) {
+		    csv.write(num_servers > 1 ? ",state_" + s : ",state");
+		}
+		csv.write(",energy,tasks_served,sleep_to_active_qth\n");
+	    }
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Cannot create samples file!");
+	}
+    }
+
+    /**
+     * Writes the snapshot due at next_time and schedules the next one.
+     *
+     * @param qsize  amount of tasks in the base station
+     * @param states state of each server
+     * @param energy energy consumed so far (in Joules)
+     * @param served tasks served so far
+     * @param qth    current coalescing queue threshold
+     */
+    public void write (int qsize, BaseStationState[] states, double energy, long served, int qth) {
+	try {
+	    if (csv != null) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(next_time).append(',').append(qsize);
+		for (BaseStationState st : states) {
+		    sb.append(',').append(st);
+		}
+		sb.append(',').append(energy).append(',').append(served).append(',').append(qth).append('\n');
+		csv.append(sb);
+	    } else {
+		if (buffer.remaining() < 32 + states.length) {
+		    flush();
+		}
+		buffer.putDouble(next_time).putInt(qsize).putDouble(energy).putLong(served).putInt(qth);
+		for (BaseStationState st : states) {
+		    buffer.put((byte) st.ordinal());
+		}
+	    }
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while writing samples file!");
+	}
+	next_sample++;
+	next_time = next_sample * interval;
+    }
+
+    /**
+     * Writes the buffered binary records to the samples file.
+     */
+    private void flush () throws IOException {
+	buffer.flip();
+	while (buffer.hasRemaining()) {
+	    channel.write(buffer);
+	}
+	buffer.clear();
+    }
+
+    /**
+     * Writes the buffered snapshots and closes the samples file.
+     */
+    public void close () {
+	try {
+	    if (csv != null) {
+		csv.close();
+	    } else {
+		flush();
+		channel.close();
+	    }
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while writing samples file!");
+	}
+    }
+}
@@ -0,0 +1,53 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class implements the multiple sleeping periods scheme: a server sleeps for the sleeping time and,
+ * if there is no task waiting for it, sleeps again for another sleeping period.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public final class MultipleSleepPolicy implements SleepPolicy {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Does nothing: new tasks do not wake up sleeping servers.
+     *
+     * @param bs the base station
+     * @param t  current time
+     */
+    public void taskArrived (BaseStation bs, double t) {}
+
+    /**
+     * Does nothing.
+     *
+     * @param bs the base station
+     * @param s  the server
+     * @param t  current time
+     */
+    public void taskServed (BaseStation bs, int s, double t) {}
+
+    /**
+     * Schedules the end of the sleeping period of a server that has just gone to sleep, and keeps
+     * it asleep for another period if no task is waiting for it when the period ends.
+     *
+     * @param bs the base station
+     * @param s  the server
+     * @param st the new state of the server
+     * @param t  current time
+     * @return the state the server actually enters
+     */
+    public BaseStationState stateChanged (BaseStation bs, int s, BaseStationState st, double t) {
+	if (st == BaseStationState.SLEEP) {
+	    bs.scheduleWakeUp(s, t + bs.sim.sleeping_t);
+	} else if (st == BaseStationState.TRANSITION_TO_ACTIVE && bs.getUncoveredTasks() <= 0) {
+	    bs.scheduleWakeUp(s, t + bs.sim.sleeping_t);
+	    return BaseStationState.SLEEP;
+	} else if (st == BaseStationState.ACTIVE_SERVE && !bs.isServing(s)) {
+	    // The waiting tasks have been taken by other servers or have expired
+	    bs.scheduleSleep(s, t + bs.sim.inactivity_t);
+	    return BaseStationState.ACTIVE_IDLE;
+	}
+	return st;
+    }
+}
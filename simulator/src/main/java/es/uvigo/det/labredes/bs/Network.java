@@ -0,0 +1,337 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.*;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.BrokenBarrierException;
+
+/**
+ * This class simulates a network of base stations (cells) sharing an event list, or split into
+ * partitions simulated in parallel. Each event is tagged with its cell and dispatched to the
+ * corresponding base station, so the cost of handling an event does not depend on the number of
+ * cells (apart from the future event set, which is logarithmic for the heaps and constant for the
+ * calendar queue). Cells only interact through handovers: each cell may hand new tasks over to the
+ * next cell (the cells form a ring).
+ *
+ * The network file has the same syntax as the config file, with this directive:
+ *   CELLS count [parameter=value ...]
+ * Each line adds the given number of cells, configured as the base simulation except for the
+ * listed parameters. Parameter names are the names of the fields of the Simulation class, except
+ * for those shared by the whole network (see NETWORK_PARAMETERS).
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class Network {
+    /**
+     * Parameters shared by the whole network, that cannot be overridden per cell: the length of the
+     * simulation and the event lists are common to all the cells, and the seed of each cell is derived.
+     */
+    public static final String[] NETWORK_PARAMETERS = {"simulation_length", "simulation_seed", "event_set", "event_pooling"};
+
+    /**
+     * The simulation whose parameters are used for the values not overridden.
+     */
+    private Simulation base;
+    /**
+     * The parameter overrides of each cell, as parameter=value pairs.
+     */
+    private List<String[]> cells;
+    /**
+     * The simulated base stations, once the network has been run.
+     */
+    private BaseStation[] stations;
+    /**
+     * The event list of each partition, once the network has been run.
+     */
+    private EventList[] partitions;
+    /**
+     * The tasks handed over by the cells of each partition in the current window.
+     */
+    private List<List<TaskArrivalEvent>> outboxes;
+    /**
+     * The shortest handover delay, i.e. the length of the time windows.
+     */
+    private double lookahead;
+    /**
+     * The end of the current time window.
+     */
+    private double window_end;
+
+    /**
+     * Creates a new network of cells around the specified simulation.
+     *
+     * @param sim the simulation providing the parameters not overridden
+     */
+    public Network (Simulation sim) {
+	base = sim;
+	cells = new ArrayList<String[]>();
+    }
+
+    /**
+     * Reads the cells to simulate from the specified network file.
+     *
+     * @param network_file the network file reader, closed on return
+     */
+    public void readSpec (BufferedReader network_file) {
+	try {
+	    for (String line; (line = network_file.readLine()) != null;) {
+		if (line.startsWith(";") || line.trim().isEmpty()) {
+		    // Just a comment
+		    continue;
+		}
+		String[] line_fields = line.trim().split("\\s+");
+		if (line_fields[0].equals("CELLS")) {
+		    int count = 0;
+		    try {
+			count = Integer.parseInt(line_fields[1]);
+		    } catch (Exception e) {
+			EnergyAwareBaseStationSimulator.printError("Network file: invalid number of cells!");
+		    }
+		    if (count <= 0) {
+			EnergyAwareBaseStationSimulator.printError("Network file: invalid number of cells!");
+		    }
+		    String[] overrides = new String[line_fields.length - 2];
+		    System.arraycopy(line_fields, 2, overrides, 0, overrides.length);
+		    for (String pair : overrides) {
+			if (pair.indexOf('=') <= 0) {
+			    EnergyAwareBaseStationSimulator.printError("Network file: invalid parameter " + pair + "!");
+			}
+			for (String name : NETWORK_PARAMETERS) {
+			    if (pair.substring(0, pair.indexOf('=')).equals(name)) {
+				EnergyAwareBaseStationSimulator.printError("Network file: parameter " + name + " cannot be overridden per cell!");
+			    }
+			}
+		    }
+		    for (int i = 0; i < count; i++) {
+			cells.add(overrides);
+		    }
+		} else {
+		    EnergyAwareBaseStationSimulator.printError("Network file: unknown directive " + line_fields[0] + "!");
+		}
+	    }
+	    network_file.close();
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while reading network file!");
+	}
+	if (cells.isEmpty()) {
+	    EnergyAwareBaseStationSimulator.printError("Network file: no cells defined!");
+	}
+    }
+
+    /**
+     * Returns the number of cells.
+     *
+     * @return the number of cells
+     */
+    public int getNumCells () {
+	return cells.size();
+    }
+
+    /**
+     * Returns a new simulation holding the parameters of the specified cell.
+     * Its seed is derived from the base seed and the cell index.
+     *
+     * @param index the cell index
+     * @return the simulation parameters of the cell
+     */
+    public Simulation getCellSimulation (int index) {
+	Simulation sim = base.copy();
+	sim.simulation_verbose = false;
+	sim.trace_file = null;
+	sim.checkpoint_interval = 0;
+	sim.sampling_interval = 0;
+	for (String pair : cells.get(index)) {
+	    int i = pair.indexOf('=');
+	    sim.setParameter(pair.substring(0, i), pair.substring(i + 1));
+	}
+	sim.simulation_seed = Simulation.deriveSeed(base.simulation_seed, index);
+	// A single cell reaching its target precision must not stop the whole network
+	sim.steady_state_precision = 0;
+	return sim;
+    }
+
+    /**
+     * Simulates all the cells in a single event loop and returns the statistics of each cell.
+     *
+     * @return the statistics of each cell, in cell order
+     */
+    public SimulationResults[] run () {
+	return run(1);
+    }
+
+    /**
+     * Simulates all the cells, split into the specified number of partitions of consecutive cells, each
+     * with its own event list and worker thread, and returns the statistics of each cell.
+     * Partitions are synchronized conservatively: they process time windows as long as the shortest
+     * handover delay (the lookahead) and exchange the handed over tasks between windows. Without
+     * handovers there is a single window. The results do not depend on the number of partitions.
+     *
+     * @param threads the number of partitions
+     * @return the statistics of each cell, in cell order
+     */
+    public SimulationResults[] run (int threads) {
+	int num_partitions = Math.min(threads, cells.size());
+	partitions = new EventList[num_partitions];
+	outboxes = new ArrayList<List<TaskArrivalEvent>>();
+	for (int p = 0; p < num_partitions; p++) {
+	    partitions[p] = new EventList(base.simulation_length, base.createFutureEventSet(), new EventPool(base.event_pooling));
+	    outboxes.add(new ArrayList<TaskArrivalEvent>());
+	}
+	stations = new BaseStation[cells.size()];
+	lookahead = Double.POSITIVE_INFINITY;
+	for (int i = 0; i < stations.length; i++) {
+	    int p = (int) ((long) i * num_partitions / stations.length);
+	    Simulation sim = getCellSimulation(i);
+	    sim.event_handler = partitions[p];
+	    stations[i] = sim.createBaseStation(i);
+	    sim.bs = stations[i];
+	    if (sim.handover_probability > 0 && stations.length > 1) {
+		stations[i].enableHandover(outboxes.get(p), (i + 1) % stations.length);
+		lookahead = Math.min(lookahead, sim.handover_delay);
+	    }
+	}
+	for (EventList partition : partitions) {
+	    partition.setEventHandlers(stations);
+	}
+	window_end = Math.min(lookahead, base.simulation_length);
+
+	// Events processing
+	if (num_partitions == 1) {
+	    while (true) {
+		processWindow(partitions[0]);
+		if (window_end >= base.simulation_length) {
+		    break;
+		}
+		nextWindow();
+	    }
+	} else {
+	    final CyclicBarrier barrier = new CyclicBarrier(num_partitions, new Runnable() {
+		    public void run () {
+			nextWindow();
+		    }
+		});
+	    Thread[] workers = new Thread[num_partitions];
+	    for (int p = 0; p < num_partitions; p++) {
+		final EventList partition = partitions[p];
+		workers[p] = new Thread(new Runnable() {
+			public void run () {
+			    try {
+				while (true) {
+				    processWindow(partition);
+				    if (window_end >= base.simulation_length) {
+					break;
+				    }
+				    barrier.await();
+				}
+			    } catch (InterruptedException e) {
+				EnergyAwareBaseStationSimulator.printError("Network simulation interrupted!");
+			    } catch (BrokenBarrierException e) {
+				EnergyAwareBaseStationSimulator.printError("Network simulation interrupted!");
+			    }
+			}
+		    });
+		workers[p].start();
+	    }
+	    for (Thread worker : workers) {
+		try {
+		    worker.join();
+		} catch (InterruptedException e) {
+		    EnergyAwareBaseStationSimulator.printError("Network simulation interrupted!");
+		}
+	    }
+	}
+
+	SimulationResults[] results = new SimulationResults[stations.length];
+	for (int i = 0; i < stations.length; i++) {
+	    stations[i].task_generator.close();
+	    results[i] = stations[i].getResults();
+	}
+	return results;
+    }
+
+    /**
+     * Handles the events of the specified partition that occur before the end of the current window
+     * (all the remaining events in the last window).
+     */
+    private void processWindow (EventList partition) {
+	boolean last = window_end >= base.simulation_length;
+	Event event;
+	while ((event = partition.getNextEvent(false)) != null && (last || event.time < window_end)) {
+	    partition.handleEvent(partition.getNextEvent(true));
+	}
+    }
+
+    /**
+     * Delivers the tasks handed over in the current window and moves to the next window.
+     * Tasks are delivered in order of destination cell and, for each cell, in order of handover,
+     * which does not depend on the partitioning since every cell receives tasks from a single cell.
+     * They arrive after the lookahead, so never before the end of the current window.
+     */
+    private void nextWindow () {
+	List<TaskArrivalEvent> tasks = new ArrayList<TaskArrivalEvent>();
+	for (List<TaskArrivalEvent> outbox : outboxes) {
+	    tasks.addAll(outbox);
+	    outbox.clear();
+	}
+	tasks.sort(new Comparator<TaskArrivalEvent>() {
+		public int compare (TaskArrivalEvent t1, TaskArrivalEvent t2) {
+		    return Integer.compare(t1.cell, t2.cell);
+		}
+	    });
+	for (TaskArrivalEvent task : tasks) {
+	    stations[task.cell].receiveTask(task);
+	}
+	window_end = Math.min(window_end + lookahead, base.simulation_length);
+    }
+
+    /**
+     * Returns the number of events processed in the last run.
+     *
+     * @return the number of events
+     */
+    public long getNumEvents () {
+	long num_events = 0;
+	if (partitions != null) {
+	    for (EventList partition : partitions) {
+		num_events += partition.getNumEvents();
+	    }
+	}
+	return num_events;
+    }
+
+    /**
+     * Writes one CSV row per cell with its parameter overrides and statistics.
+     *
+     * @param results the statistics of each cell
+     * @param out     the stream where the CSV rows are written
+     */
+    public void writeCsv (SimulationResults[] results, PrintStream out) {
+	out.println("cell,seed,parameters," + SimulationResults.csvHeader());
+	for (int i = 0; i < results.length; i++) {
+	    StringBuilder row = new StringBuilder();
+	    row.append(i).append(',').append(Simulation.deriveSeed(base.simulation_seed, i)).append(',');
+	    row.append(String.join(" ", cells.get(i)));
+	    out.println(row.append(',').append(results[i].toCsv()));
+	}
+	out.flush();
+    }
+
+    /**
+     * Prints on standard output the aggregate statistics of the network: the task statistics of all the
+     * cells together (task counters summed) and the per-cell averages of the other statistics.
+     *
+     * @param results the statistics of each cell
+     */
+    public static void printStatistics (SimulationResults[] results) {
+	SimulationResults aggregate = SimulationResults.aggregate(results);
+	System.out.format("Cells: %d %n", results.length);
+	System.out.format("Total power consumption: %.4f %n", aggregate.power_consumption * results.length);
+	System.out.println("Network totals:");
+	aggregate.printTaskStatistics();
+	System.out.println("Per-cell averages:");
+	aggregate.printStateStatistics();
+    }
+}
@@ -0,0 +1,174 @@
+package es.uvigo.det.labredes.bs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class implements FutureEventSet interface with a pairing heap.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class PairingHeapEventSet implements FutureEventSet {
+    /**
+     * A node of the pairing heap.
+     */
+    private static final class Node {
+	Event event;
+	Node child, sibling;
+
+	Node (Event e) {
+	    event = e;
+	}
+    }
+
+    /**
+     * The root of the heap.
+     */
+    private Node root;
+    /**
+     * The number of events stored in the heap.
+     */
+    private int size;
+    /**
+     * Recycled nodes, linked through their sibling field.
+     */
+    private Node free_nodes;
+    /**
+     * Scratch list used by the two-pass merge.
+     */
+    private List<Node> pairs;
+
+    /**
+     * Creates a new empty pairing heap of events.
+     */
+    public PairingHeapEventSet () {
+	root = free_nodes = null;
+	size = 0;
+	pairs = new ArrayList<Node>();
+    }
+
+    /**
+     * Adds the specified event to the heap.
+     *
+     * @param event the Event to be added
+     */
+    public void add (Event event) {
+	Node node = free_nodes;
+	if (node == null) {
+	    node = new Node(event);
+	} else {
+	    free_nodes = node.sibling;
+	    node.event = event;
+	    node.sibling = null;
+	}
+	root = meld(root, node);
+	size++;
+    }
+
+    /**
+     * Returns the next event without removing it from the heap.
+     *
+     * @return the next event or null if the heap is empty
+     */
+    public Event peek () {
+	return root == null ? null : root.event;
+    }
+
+    /**
+     * Removes and returns the next event.
+     *
+     * @return the next event or null if the heap is empty
+     */
+    public Event poll () {
+	if (root == null) {
+	    return null;
+	}
+	Node old_root = root;
+	Event event = old_root.event;
+	root = mergePairs(old_root.child);
+	size--;
+	old_root.event = null;
+	old_root.child = null;
+	old_root.sibling = free_nodes;
+	free_nodes = old_root;
+	return event;
+    }
+
+    /**
+     * Returns the number of events stored in the heap.
+     *
+     * @return the number of events stored in the heap
+     */
+    public int size () {
+	return size;
+    }
+
+    /**
+     * Returns an array containing all the events stored in the heap.
+     *
+     * @return an array containing all the events stored in the heap
+     */
+    public Event[] toArray () {
+	Event[] events = new Event[size];
+	int n = 0;
+	List<Node> stack = new ArrayList<Node>();
+	if (root != null) {
+	    stack.add(root);
+	}
+	while (!stack.isEmpty()) {
+	    Node node = stack.remove(stack.size() - 1);
+	    events[n++] = node.event;
+	    for (Node c = node.child; c != null; c = c.sibling) {
+		stack.add(c);
+	    }
+	}
+	return events;
+    }
+
+    /**
+     * Melds two heaps and returns the new root.
+     */
+    private Node meld (Node a, Node b) {
+	if (a == null) {
+	    return b;
+	}
+	if (b == null) {
+	    return a;
+	}
+	if (b.event.precedes(a.event)) {
+	    Node t = a;
+	    a = b;
+	    b = t;
+	}
+	b.sibling = a.child;
+	a.child = b;
+	return a;
+    }
+
+    /**
+     * Merges a list of sibling heaps using the standard two-pass strategy.
+     */
+    private Node mergePairs (Node first) {
+	if (first == null) {
+	    return null;
+	}
+	pairs.clear();
+	while (first != null) {
+	    Node a = first;
+	    Node b = a.sibling;
+	    first = (b == null) ? null : b.sibling;
+	    a.sibling = null;
+	    if (b != null) {
+		b.sibling = null;
+	    }
+	    pairs.add(meld(a, b));
+	}
+	Node result = pairs.get(pairs.size() - 1);
+	for (int i = pairs.size() - 2; i >= 0; i--) {
+	    result = meld(pairs.get(i), result);
+	}
+	pairs.clear();
+	return result;
+    }
+}
@@ -0,0 +1,305 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.*;
+import java.util.List;
+import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This class runs a set of independent simulations that differ in some parameters,
+ * in parallel, writing one CSV row per simulated point.
+ *
+ * The sweep file has the same syntax as the config file, with these directives:
+ *   GRID parameter value1 value2 ...
+ *   POINT parameter=value [parameter=value ...]
+ *   PRUNE max_delay [max_points]
+ * The points are the cartesian product of all GRID lines. If POINT lines are given,
+ * each of them is combined with every point of the grid.
+ * With a PRUNE line, the points are first evaluated with the AnalyticalModel: those whose
+ * analytical delay exceeds max_delay are not simulated and, of the rest, only the max_points
+ * with the lowest analytical power consumption are. Points out of the model are always simulated.
+ * Parameter names are the names of the fields of the Simulation class.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class ParameterSweep {
+    /**
+     * The simulation whose parameters are used for the values not swept.
+     */
+    private Simulation base;
+    /**
+     * The names of the swept parameters.
+     */
+    private List<String> names;
+    /**
+     * The parameter values of each point, in the same order as names.
+     */
+    private List<String[]> points;
+    /**
+     * Maximum analytical task delay of the simulated points (0 to simulate all of them).
+     */
+    private double prune_delay;
+    /**
+     * Maximum number of simulated points among those that the model applies to (0 for no limit).
+     */
+    private int prune_points;
+
+    /**
+     * Creates a new parameter sweep around the specified simulation.
+     *
+     * @param sim the simulation providing the parameters not swept
+     */
+    public ParameterSweep (Simulation sim) {
+	base = sim;
+	names = new ArrayList<String>();
+	points = new ArrayList<String[]>();
+	prune_delay = 0;
+	prune_points = 0;
+    }
+
+    /**
+     * Reads the points to simulate from the specified sweep file.
+     *
+     * @param sweep_file the sweep file reader, closed on return
+     */
+    public void readSpec (BufferedReader sweep_file) {
+	List<String> grid_names = new ArrayList<String>();
+	List<String[]> grid_values = new ArrayList<String[]>();
+	List<String[]> list_points = new ArrayList<String[]>();
+	try {
+	    for (String line; (line = sweep_file.readLine()) != null;) {
+		if (line.startsWith(";") || line.trim().isEmpty()) {
+		    // Just a comment
+		    continue;
+		}
+		String[] line_fields = line.trim().split("\\s+");
+		if (line_fields[0].equals("GRID")) {
+		    if (line_fields.length < 3) {
+			EnergyAwareBaseStationSimulator.printError("Sweep file: invalid grid line!");
+		    }
+		    grid_names.add(line_fields[1]);
+		    String[] values = new String[line_fields.length - 2];
+		    System.arraycopy(line_fields, 2, values, 0, values.length);
+		    grid_values.add(values);
+		} else if (line_fields[0].equals("POINT")) {
+		    list_points.add(line_fields);
+		} else if (line_fields[0].equals("PRUNE")) {
+		    try {
+			prune_delay = Double.parseDouble(line_fields[1]);
+			if (line_fields.length > 2) {
+			    prune_points = Integer.parseInt(line_fields[2]);
+			}
+		    } catch (RuntimeException e) {
+			EnergyAwareBaseStationSimulator.printError("Sweep file: invalid prune line!");
+		    }
+		    if (prune_delay <= 0 || prune_points < 0) {
+			EnergyAwareBaseStationSimulator.printError("Sweep file: invalid prune line!");
+		    }
+		} else {
+		    EnergyAwareBaseStationSimulator.printError("Sweep file: unknown directive " + line_fields[0] + "!");
+		}
+	    }
+	    sweep_file.close();
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while reading sweep file!");
+	}
+
+	// Parameter names: grid parameters first, then those listed in points
+	names.addAll(grid_names);
+	for (String[] p : list_points) {
+	    for (int i = 1; i < p.length; i++) {
+		String name = parameterName(p[i]);
+		if (!names.contains(name)) {
+		    names.add(name);
+		}
+	    }
+	}
+
+	// Cartesian product of the grid
+	List<String[]> grid = new ArrayList<String[]>();
+	grid.add(new String[names.size()]);
+	for (int g = 0; g < grid_names.size(); g++) {
+	    List<String[]> next = new ArrayList<String[]>();
+	    for (String[] partial : grid) {
+		for (String v : grid_values.get(g)) {
+		    String[] point = partial.clone();
+		    point[g] = v;
+		    next.add(point);
+		}
+	    }
+	    grid = next;
+	}
+
+	if (list_points.isEmpty()) {
+	    points.addAll(grid);
+	} else {
+	    for (String[] p : list_points) {
+		for (String[] partial : grid) {
+		    String[] point = partial.clone();
+		    for (int i = 1; i < p.length; i++) {
+			point[names.indexOf(parameterName(p[i]))] = p[i].substring(p[i].indexOf('=') + 1);
+		    }
+		    points.add(point);
+		}
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of points to simulate.
+     *
+     * @return the number of points
+     */
+    public int getNumPoints () {
+	return points.size();
+    }
+
+    /**
+     * Returns a new simulation configured for the specified point.
+     * Its seed is derived from the base seed and the point index.
+     *
+     * @param index the point index
+     * @return the simulation for the point
+     */
+    public Simulation getSimulation (int index) {
+	Simulation sim = base.copy();
+	sim.simulation_verbose = false;
+	sim.trace_file = null;
+	sim.checkpoint_interval = 0;
+	sim.sampling_interval = 0;
+	String[] point = points.get(index);
+	for (int i = 0; i < names.size(); i++) {
+	    if (point[i] != null) {
+		sim.setParameter(names.get(i), point[i]);
+	    }
+	}
+	sim.simulation_seed = Simulation.deriveSeed(base.simulation_seed, index);
+	return sim;
+    }
+
+    /**
+     * Returns which points must be simulated according to their analytical estimates.
+     *
+     * @param models the analytical model of each point
+     * @return true for each point to be simulated
+     */
+    private boolean[] prune (final AnalyticalModel[] models) {
+	boolean[] simulate = new boolean[models.length];
+	List<Integer> ranked = new ArrayList<Integer>();
+	for (int i = 0; i < models.length; i++) {
+	    if (!models[i].applicable) {
+		simulate[i] = true;
+	    } else if (models[i].task_delay <= prune_delay) {
+		ranked.add(i);
+	    }
+	}
+	ranked.sort(new Comparator<Integer>() {
+		public int compare (Integer a, Integer b) {
+		    return Double.compare(models[a].power_consumption, models[b].power_consumption);
+		}
+	    });
+	for (int i = 0; i < ranked.size() && (prune_points == 0 || i < prune_points); i++) {
+	    simulate[ranked.get(i)] = true;
+	}
+	return simulate;
+    }
+
+    /**
+     * Simulates all the points using the specified number of threads and writes one CSV row per point, in point order.
+     * With pruning, the analytical estimates of each point are also written, and the simulation results of
+     * the pruned points are left empty.
+     *
+     * @param threads the number of worker threads
+     * @param out     the stream where the CSV rows are written
+     */
+    public void run (int threads, PrintStream out) {
+	StringBuilder header = new StringBuilder("point,seed");
+	for (String name : names) {
+	    header.append(',').append(name);
+	}
+	if (prune_delay > 0) {
+	    header.append(",analytical_delay,analytical_power");
+	}
+	out.println(header.append(',').append(SimulationResults.csvHeader()));
+
+	AnalyticalModel[] models = null;
+	boolean[] simulate = null;
+	if (prune_delay > 0) {
+	    models = new AnalyticalModel[points.size()];
+	    for (int i = 0; i < points.size(); i++) {
+		models[i] = new AnalyticalModel(getSimulation(i));
+	    }
+	    simulate = prune(models);
+	}
+
+	ForkJoinPool pool = new ForkJoinPool(threads);
+	List<Future<SimulationResults>> results = new ArrayList<Future<SimulationResults>>();
+	String pruned_row = SimulationResults.csvHeader().replaceAll("[^,]", "");
+	int submitted = 0, in_flight = 0;
+	try {
+	    for (int i = 0; i < points.size(); i++) {
+		// Keep at most one simulated point per thread in flight, so that a slow point does not keep
+		// the finished ones after it alive; each simulation is only created when its point is submitted
+		while (submitted < points.size() && (submitted <= i || in_flight < threads)) {
+		    if (simulate != null && !simulate[submitted]) {
+			results.add(null);
+		    } else {
+			final Simulation sim = getSimulation(submitted);
+			results.add(pool.submit(new Callable<SimulationResults>() {
+				public SimulationResults call () {
+				    return sim.run();
+				}
+			    }));
+			in_flight++;
+		    }
+		    submitted++;
+		}
+
+		StringBuilder row = new StringBuilder();
+		row.append(i).append(',').append(Simulation.deriveSeed(base.simulation_seed, i));
+		for (String v : points.get(i)) {
+		    row.append(',').append(v == null ? "" : v);
+		}
+		if (models != null) {
+		    if (models[i].applicable) {
+			row.append(',').append(models[i].task_delay).append(',').append(models[i].power_consumption);
+		    } else {
+			row.append(",,");
+		    }
+		}
+		if (results.get(i) == null) {
+		    out.println(row.append(',').append(pruned_row));
+		    continue;
+		}
+		SimulationResults r = results.get(i).get();
+		// Release the finished simulation, referenced by the task of its future
+		results.set(i, null);
+		in_flight--;
+		out.println(row.append(',').append(r.toCsv()));
+		out.flush();
+	    }
+	} catch (InterruptedException e) {
+	    EnergyAwareBaseStationSimulator.printError("Sweep interrupted!");
+	} catch (ExecutionException e) {
+	    EnergyAwareBaseStationSimulator.printError("Sweep point exception: " + e.getCause());
+	} finally {
+	    pool.shutdown();
+	}
+    }
+
+    /**
+     * Returns the parameter name of a parameter=value pair.
+     */
+    private static String parameterName (String pair) {
+	int i = pair.indexOf('=');
+	if (i <= 0) {
+	    EnergyAwareBaseStationSimulator.printError("Sweep file: invalid point " + pair + "!");
+	}
+	return pair.substring(0, i);
+    }
+}
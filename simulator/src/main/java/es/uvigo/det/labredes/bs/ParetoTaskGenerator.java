@@ -8,6 +8,8 @@ package es.uvigo.det.labredes.bs;
  * @version 1.0
  */
 public class ParetoTaskGenerator extends TaskGenerator {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The shape parameter.
      */
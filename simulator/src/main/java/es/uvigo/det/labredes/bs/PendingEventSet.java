@@ -0,0 +1,127 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.Serializable;
+
+/**
+ * This class implements the set of pending events used to discard duplicated events.
+ * Events are compared with equals and stored in an open-addressing hash table with
+ * linear probing, so that no object is allocated per event.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class PendingEventSet implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The hash table.
+     */
+    private Event[] table;
+    /**
+     * The number of events stored in the table.
+     */
+    private int size;
+
+    /**
+     * Creates a new empty set of pending events.
+     */
+    public PendingEventSet () {
+	table = new Event[64];
+	size = 0;
+    }
+
+    /**
+     * Adds the specified event unless an equal event is already stored.
+     *
+     * @param event the Event to be added
+     * @return the stored event equal to the specified one, or null if the specified event has been added
+     */
+    public Event putIfAbsent (Event event) {
+	int mask = table.length - 1;
+	int i = slotOf(event);
+	for (Event e = table[i]; e != null; e = table[i]) {
+	    if (e.equals(event)) {
+		return e;
+	    }
+	    i = (i + 1) & mask;
+	}
+	table[i] = event;
+	size++;
+	if (2 * size > table.length) {
+	    grow();
+	}
+	return null;
+    }
+
+    /**
+     * Removes the specified event (compared by identity).
+     *
+     * @param event the Event to be removed
+     * @return true if the set contained the specified event
+     */
+    public boolean remove (Event event) {
+	int mask = table.length - 1;
+	int i = slotOf(event);
+	while (table[i] != event) {
+	    if (table[i] == null) {
+		return false;
+	    }
+	    i = (i + 1) & mask;
+	}
+	size--;
+	// Backward shift deletion: move back the entries of the probe sequence
+	while (true) {
+	    table[i] = null;
+	    int j = i;
+	    while (true) {
+		j = (j + 1) & mask;
+		Event e = table[j];
+		if (e == null) {
+		    return true;
+		}
+		int k = slotOf(e);
+		if (i <= j ? (i < k && k <= j) : (i < k || k <= j)) {
+		    continue;
+		}
+		table[i] = e;
+		i = j;
+		break;
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of events stored in the set.
+     *
+     * @return the number of events stored in the set
+     */
+    public int size () {
+	return size;
+    }
+
+    /**
+     * Returns the home slot of the specified event.
+     */
+    private int slotOf (Event event) {
+	int h = event.hashCode() * 0x9E3779B9;
+	return (h ^ (h >>> 16)) & (table.length - 1);
+    }
+
+    /**
+     * Doubles the size of the hash table.
+     */
+    private void grow () {
+	Event[] old_table = table;
+	table = new Event[2 * old_table.length];
+	int mask = table.length - 1;
+	for (Event e : old_table) {
+	    if (e != null) {
+		int i = slotOf(e);
+		while (table[i] != null) {
+		    i = (i + 1) & mask;
+		}
+		table[i] = e;
+	    }
+	}
+    }
+}
@@ -8,6 +8,8 @@ package es.uvigo.det.labredes.bs;
  * @version 1.0
  */
 public class PoissonTaskGenerator extends TaskGenerator {
+    private static final long serialVersionUID = 1L;
+
     /**
      * Creates a new Poisson task generator.
      *
@@ -0,0 +1,143 @@
+package es.uvigo.det.labredes.bs;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This class runs independent replications of a simulation in parallel and estimates
+ * the mean of the main statistics with Student-t confidence intervals.
+ * Replications stop early once the relative half width of every interval reaches the target.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class Replications {
+    /**
+     * Minimum number of replications before checking the stopping rule.
+     */
+    public static final int MIN_REPLICATIONS = 3;
+
+    /**
+     * The simulation to be replicated.
+     */
+    private Simulation base;
+    /**
+     * Maximum number of replications.
+     */
+    private int max_replications;
+    /**
+     * Target relative half width of the confidence intervals (0 to run all the replications).
+     */
+    private double target_precision;
+    /**
+     * Confidence level of the intervals.
+     */
+    private double confidence;
+
+    /* Statistics across replications */
+    private SampleStatistics delay, power, norm_power, transitions_rate;
+
+    /**
+     * Creates a new set of replications of the specified simulation.
+     *
+     * @param sim  the simulation to be replicated
+     * @param maxr maximum number of replications
+     * @param prec target relative half width of the confidence intervals (0 to disable early stopping)
+     * @param conf confidence level of the intervals (e.g. 0.95)
+     */
+    public Replications (Simulation sim, int maxr, double prec, double conf) {
+	base = sim;
+	max_replications = maxr;
+	target_precision = prec;
+	confidence = conf;
+	delay = new SampleStatistics();
+	power = new SampleStatistics();
+	norm_power = new SampleStatistics();
+	transitions_rate = new SampleStatistics();
+    }
+
+    /**
+     * Returns a new simulation for the specified replication. Its seed is derived from the base seed and the replication index.
+     *
+     * @param index the replication index
+     * @return the simulation for the replication
+     */
+    public Simulation getSimulation (int index) {
+	Simulation sim = base.copy();
+	sim.simulation_verbose = false;
+	sim.trace_file = null;
+	sim.checkpoint_interval = 0;
+	sim.sampling_interval = 0;
+	sim.simulation_seed = Simulation.deriveSeed(base.simulation_seed, index);
+	return sim;
+    }
+
+    /**
+     * Runs the replications using the specified number of threads.
+     * Results are consumed in replication order, so the replications used do not depend on the number of threads.
+     *
+     * @param threads the number of worker threads
+     */
+    public void run (int threads) {
+	ForkJoinPool pool = new ForkJoinPool(threads);
+	List<Future<SimulationResults>> results = new ArrayList<Future<SimulationResults>>();
+	int submitted = 0;
+	try {
+	    for (int i = 0; i < max_replications; i++) {
+		// Keep at most one replication per thread ahead of the one being consumed
+		while (submitted < max_replications && submitted < i + threads) {
+		    final Simulation sim = getSimulation(submitted);
+		    results.add(pool.submit(new Callable<SimulationResults>() {
+			    public SimulationResults call () {
+				return sim.run();
+			    }
+			}));
+		    submitted++;
+		}
+		SimulationResults r = results.get(i).get();
+		results.set(i, null);
+		delay.add(r.average_task_delay);
+		power.add(r.power_consumption);
+		norm_power.add(r.norm_power_consumption);
+		transitions_rate.add(r.transitions_rate);
+		if (isPrecisionReached()) {
+		    break;
+		}
+	    }
+	} catch (InterruptedException e) {
+	    EnergyAwareBaseStationSimulator.printError("Replications interrupted!");
+	} catch (ExecutionException e) {
+	    EnergyAwareBaseStationSimulator.printError("Replication exception: " + e.getCause());
+	} finally {
+	    pool.shutdownNow();
+	}
+    }
+
+    /**
+     * Checks whether the target precision has been reached for all the estimated statistics.
+     *
+     * @return true if replications can stop
+     */
+    public boolean isPrecisionReached () {
+	if (target_precision <= 0 || delay.getCount() < MIN_REPLICATIONS) {
+	    return false;
+	}
+	return delay.getRelativeHalfWidth(confidence) <= target_precision &&
+	    norm_power.getRelativeHalfWidth(confidence) <= target_precision &&
+	    transitions_rate.getRelativeHalfWidth(confidence) <= target_precision;
+    }
+
+    /**
+     * Prints on standard output the estimated means and the half widths of their confidence intervals.
+     */
+    public void printStatistics () {
+	System.out.format("Replications: %d confidence %.2f %% %n", delay.getCount(), 100.0 * confidence);
+	System.out.format("Task delay: average %.3f +- %.3f %n", delay.getMean(), delay.getHalfWidth(confidence));
+	System.out.format("Average power consumption: %.4f +- %.4f %.4f +- %.4f %n", power.getMean(), power.getHalfWidth(confidence), norm_power.getMean(), norm_power.getHalfWidth(confidence));
+	System.out.format("Transitions rate: %.4f +- %.4f %n", transitions_rate.getMean(), transitions_rate.getHalfWidth(confidence));
+    }
+}
@@ -0,0 +1,192 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class accumulates independent samples of a random variable and computes
+ * their mean and Student-t confidence interval.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class SampleStatistics {
+    /**
+     * Number of samples.
+     */
+    private long n;
+    /**
+     * Running mean and sum of squared deviations (Welford's algorithm).
+     */
+    private double mean, m2;
+
+    /**
+     * Creates a new empty set of samples.
+     */
+    public SampleStatistics () {
+	n = 0;
+	mean = m2 = 0;
+    }
+
+    /**
+     * Adds a new sample.
+     *
+     * @param x the sample value
+     */
+    public void add (double x) {
+	n++;
+	double delta = x - mean;
+	mean += delta / n;
+	m2 += delta * (x - mean);
+    }
+
+    /**
+     * Returns the number of samples.
+     *
+     * @return the number of samples
+     */
+    public long getCount () {
+	return n;
+    }
+
+    /**
+     * Returns the sample mean.
+     *
+     * @return the sample mean
+     */
+    public double getMean () {
+	return mean;
+    }
+
+    /**
+     * Returns the sample variance.
+     *
+     * @return the unbiased sample variance (0 if there are less than two samples)
+     */
+    public double getVariance () {
+	return n > 1 ? m2 / (n - 1) : 0;
+    }
+
+    /**
+     * Returns the half width of the confidence interval for the mean.
+     *
+     * @param confidence the confidence level (e.g. 0.95)
+     * @return the half width of the interval (infinite if there are less than two samples)
+     */
+    public double getHalfWidth (double confidence) {
+	if (n < 2) {
+	    return Double.POSITIVE_INFINITY;
+	}
+	return studentTQuantile(0.5 + confidence / 2, n - 1) * Math.sqrt(getVariance() / n);
+    }
+
+    /**
+     * Returns the half width of the confidence interval relative to the mean.
+     *
+     * @param confidence the confidence level (e.g. 0.95)
+     * @return the relative half width (0 if all samples are 0)
+     */
+    public double getRelativeHalfWidth (double confidence) {
+	double hw = getHalfWidth(confidence);
+	if (hw == 0) {
+	    return 0;
+	}
+	return mean == 0 ? Double.POSITIVE_INFINITY : hw / Math.abs(mean);
+    }
+
+    /**
+     * Returns the quantile of the Student-t distribution.
+     *
+     * @param p  the cumulative probability (0 < p < 1)
+     * @param df the degrees of freedom
+     * @return the value t such that P(T <= t) = p
+     */
+    public static double studentTQuantile (double p, double df) {
+	if (p == 0.5) {
+	    return 0;
+	}
+	if (p < 0.5) {
+	    return -studentTQuantile(1 - p, df);
+	}
+	// Bisection on the CDF: P(T > t) = I_{df/(df+t^2)}(df/2, 1/2) / 2
+	double lo = 0, hi = 1;
+	while (studentTUpperTail(hi, df) > 1 - p) {
+	    hi *= 2;
+	}
+	for (int i = 0; i < 100 && hi - lo > 1e-12 * hi; i++) {
+	    double mid = (lo + hi) / 2;
+	    if (studentTUpperTail(mid, df) > 1 - p) {
+		lo = mid;
+	    } else {
+		hi = mid;
+	    }
+	}
+	return (lo + hi) / 2;
+    }
+
+    /**
+     * Returns P(T > t) for t >= 0.
+     */
+    private static double studentTUpperTail (double t, double df) {
+	return 0.5 * regularizedBeta(df / (df + t * t), df / 2, 0.5);
+    }
+
+    /**
+     * Returns the regularized incomplete beta function I_x(a, b).
+     */
+    private static double regularizedBeta (double x, double a, double b) {
+	if (x <= 0) {
+	    return 0;
+	}
+	if (x >= 1) {
+	    return 1;
+	}
+	double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+	if (x < (a + 1) / (a + b + 2)) {
+	    return front * betaContinuedFraction(x, a, b) / a;
+	}
+	return 1 - front * betaContinuedFraction(1 - x, b, a) / b;
+    }
+
+    /**
+     * Evaluates the continued fraction of the incomplete beta function (modified Lentz's method).
+     */
+    private static double betaContinuedFraction (double x, double a, double b) {
+	final double tiny = 1e-300;
+	double c = 1, d = 1 - (a + b) * x / (a + 1);
+	d = 1 / (Math.abs(d) < tiny ? tiny : d);
+	double h = d;
+	for (int m = 1; m <= 300; m++) {
+	    int m2 = 2 * m;
+	    double aa = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+	    d = 1 + aa * d;
+	    d = 1 / (Math.abs(d) < tiny ? tiny : d);
+	    c = 1 + aa / c;
+	    c = Math.abs(c) < tiny ? tiny : c;
+	    h *= d * c;
+	    aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+	    d = 1 + aa * d;
+	    d = 1 / (Math.abs(d) < tiny ? tiny : d);
+	    c = 1 + aa / c;
+	    c = Math.abs(c) < tiny ? tiny : c;
+	    double del = d * c;
+	    h *= del;
+	    if (Math.abs(del - 1) < 1e-15) {
+		break;
+	    }
+	}
+	return h;
+    }
+
+    /**
+     * Returns the logarithm of the gamma function (Lanczos approximation).
+     */
+    private static double logGamma (double x) {
+	final double[] c = {76.18009172947146, -86.50532032941677, 24.01409824083091,
+			    -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5};
+	double y = x, tmp = x + 5.5;
+	tmp -= (x + 0.5) * Math.log(tmp);
+	double ser = 1.000000000190015;
+	for (int j = 0; j < c.length; j++) {
+	    ser += c[j] / ++y;
+	}
+	return -tmp + Math.log(2.5066282746310005 * ser / x);
+    }
+}
@@ -0,0 +1,187 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.*;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This class compares several energy management schemes on identical sample paths (common random numbers).
+ * Every replication runs all the schemes with the same seed, so they see the same task arrivals and service
+ * demands, and the differences with the first scheme are estimated from the paired differences within each
+ * replication, with Student-t confidence intervals much narrower than those of independent runs.
+ *
+ * The comparison file has a config line per scheme (usually a SCHEME line), applied to the config file parameters:
+ *   SCHEME multiple 2 5
+ *   SCHEME coalescing 2 4 0
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class SchemeComparison {
+    /**
+     * Names of the compared statistics and decimals printed.
+     */
+    private static final String[] NAMES = {"Task delay", "Average power consumption", "Normalized power consumption", "Transitions rate"};
+    private static final int[] DECIMALS = {3, 4, 4, 4};
+
+    /**
+     * The simulation providing the parameters shared by all the schemes.
+     */
+    private Simulation base;
+    /**
+     * The config line of each scheme.
+     */
+    private List<String> schemes;
+    /**
+     * Number of replications.
+     */
+    private int replications;
+    /**
+     * Confidence level of the intervals.
+     */
+    private double confidence;
+
+    /* Statistics of each scheme across replications and their paired differences with the first scheme */
+    private SampleStatistics[][] stats, diffs;
+
+    /**
+     * Creates a new comparison around the specified simulation.
+     *
+     * @param sim  the simulation providing the parameters shared by all the schemes
+     * @param reps number of replications
+     * @param conf confidence level of the intervals (e.g. 0.95)
+     */
+    public SchemeComparison (Simulation sim, int reps, double conf) {
+	base = sim;
+	schemes = new ArrayList<String>();
+	replications = reps;
+	confidence = conf;
+    }
+
+    /**
+     * Reads the schemes to compare from the specified comparison file.
+     *
+     * @param comparison_file the comparison file reader, closed on return
+     */
+    public void readSpec (BufferedReader comparison_file) {
+	try {
+	    for (String line; (line = comparison_file.readLine()) != null;) {
+		if (line.startsWith(";") || line.trim().isEmpty()) {
+		    // Just a comment
+		    continue;
+		}
+		schemes.add(line.trim());
+		// Check the line
+		getSimulation(schemes.size() - 1, 0);
+	    }
+	    comparison_file.close();
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while reading comparison file!");
+	}
+	if (schemes.size() < 2) {
+	    EnergyAwareBaseStationSimulator.printError("Comparison file: at least two schemes are required!");
+	}
+    }
+
+    /**
+     * Returns a new simulation of the specified scheme for the specified replication.
+     * Its seed is derived from the base seed and the replication index, and is the same for all the schemes.
+     *
+     * @param scheme the scheme index
+     * @param index  the replication index
+     * @return the simulation
+     */
+    public Simulation getSimulation (int scheme, int index) {
+	Simulation sim = base.copy();
+	sim.simulation_verbose = false;
+	sim.trace_file = null;
+	sim.checkpoint_interval = 0;
+	sim.sampling_interval = 0;
+	sim.readConfig(new BufferedReader(new StringReader(schemes.get(scheme))));
+	sim.simulation_seed = Simulation.deriveSeed(base.simulation_seed, index);
+	return sim;
+    }
+
+    /**
+     * Runs all the schemes in every replication using the specified number of threads.
+     *
+     * @param threads the number of worker threads
+     */
+    public void run (int threads) {
+	int n = schemes.size();
+	stats = new SampleStatistics[n][NAMES.length];
+	diffs = new SampleStatistics[n][NAMES.length];
+	for (int j = 0; j < n; j++) {
+	    for (int k = 0; k < NAMES.length; k++) {
+		stats[j][k] = new SampleStatistics();
+		diffs[j][k] = new SampleStatistics();
+	    }
+	}
+
+	ForkJoinPool pool = new ForkJoinPool(threads);
+	List<Future<SimulationResults>> results = new ArrayList<Future<SimulationResults>>();
+	for (int i = 0; i < replications; i++) {
+	    for (int j = 0; j < n; j++) {
+		final Simulation sim = getSimulation(j, i);
+		results.add(pool.submit(new Callable<SimulationResults>() {
+			public SimulationResults call () {
+			    return sim.run();
+			}
+		    }));
+	    }
+	}
+	try {
+	    for (int i = 0; i < replications; i++) {
+		double[] first = getStatistics(results.get(i * n).get());
+		for (int j = 0; j < n; j++) {
+		    double[] x = getStatistics(results.get(i * n + j).get());
+		    for (int k = 0; k < NAMES.length; k++) {
+			stats[j][k].add(x[k]);
+			diffs[j][k].add(x[k] - first[k]);
+		    }
+		}
+		for (int j = 0; j < n; j++) {
+		    results.set(i * n + j, null);
+		}
+	    }
+	} catch (InterruptedException e) {
+	    EnergyAwareBaseStationSimulator.printError("Comparison interrupted!");
+	} catch (ExecutionException e) {
+	    EnergyAwareBaseStationSimulator.printError("Comparison exception: " + e.getCause());
+	} finally {
+	    pool.shutdown();
+	}
+    }
+
+    /**
+     * Returns the compared statistics of the specified results, in the order of NAMES.
+     */
+    private static double[] getStatistics (SimulationResults r) {
+	return new double[] {r.average_task_delay, r.power_consumption, r.norm_power_consumption, r.transitions_rate};
+    }
+
+    /**
+     * Prints on standard output the estimated means of every scheme and, for the other schemes, their paired
+     * differences with the first one, with the half widths of their confidence intervals. The half width that
+     * independent runs would give for the same difference is also printed for reference.
+     */
+    public void printStatistics () {
+	System.out.format("Replications: %d confidence %.2f %% %n", replications, 100.0 * confidence);
+	for (int j = 0; j < schemes.size(); j++) {
+	    System.out.format("Scheme %d: %s %n", j, schemes.get(j));
+	    for (int k = 0; k < NAMES.length; k++) {
+		String format = "%." + DECIMALS[k] + "f";
+		System.out.format("%s: " + format + " +- " + format + " %n", NAMES[k], stats[j][k].getMean(), stats[j][k].getHalfWidth(confidence));
+		if (j > 0) {
+		    double independent_hw = Math.sqrt(Math.pow(stats[0][k].getHalfWidth(confidence), 2) + Math.pow(stats[j][k].getHalfWidth(confidence), 2));
+		    System.out.format("%s difference with scheme 0: " + format + " +- " + format + " (independent runs +- " + format + ") %n",
+				      NAMES[k], diffs[j][k].getMean(), diffs[j][k].getHalfWidth(confidence), independent_hw);
+		}
+	    }
+	}
+    }
+}
@@ -1,6 +1,8 @@
 package es.uvigo.det.labredes.bs;
 
+import java.io.Serializable;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * This class generates random service times for tasks.
@@ -8,7 +10,9 @@ import java.util.Random;
  * @author Sergio Herreria-Alonso 
  * @version 1.0
  */
-abstract public class ServiceTimeGenerator {
+abstract public class ServiceTimeGenerator implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The average service time (in seconds).
      */
@@ -16,7 +20,7 @@ abstract public class ServiceTimeGenerator {
     /**
      * The random number generator.
      */
-    public Random rng;
+    public RandomGenerator rng;
 
     /**
      * Creates a new random service time generator.
@@ -38,12 +42,21 @@ abstract public class ServiceTimeGenerator {
     }
 
     /**
-     * Sets the seed for the random number generator.
+     * Sets the seed for the default (java.util.Random) random number generator.
      *
      * @param seed initial seed
      */
     public void setSeed (long seed) {
-	rng.setSeed(seed);
+	rng = new Random(seed);
+    }
+
+    /**
+     * Sets the random number generator.
+     *
+     * @param generator the random number generator
+     */
+    public void setRandomGenerator (RandomGenerator generator) {
+	rng = generator;
     }
 
     /**
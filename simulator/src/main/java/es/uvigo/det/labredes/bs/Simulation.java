@@ -0,0 +1,705 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.JumpableGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * This class holds the configuration and the state of a single simulation run.
+ * Each instance owns its event list, base station and generators, so several
+ * simulations can be run one after another (or concurrently) in the same JVM.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class Simulation implements Cloneable, Serializable {
+    private static final long serialVersionUID = 1L;
+
+
+    /* Simulation parameters */
+    /**
+     * Length of the simulation (in seconds). Default = 10 seconds.
+     */
+    public double simulation_length = 10;
+    /**
+     * Seed for the simulation. Default = 123456789.
+     */
+    public long simulation_seed = 123456789;
+    /**
+     * If true a message for each simulated event is printed on standard output. Default = false.
+     */
+    public boolean simulation_verbose = false;
+    /**
+     * File where a binary record for each simulated event is written (null to disable). Default = null.
+     */
+    public String trace_file = null;
+    /**
+     * Implementation of the future event set (binaryheap, pairingheap or calendarqueue). Default = binaryheap.
+     */
+    public String event_set = "binaryheap";
+    /**
+     * If true handled events are recycled instead of allocated. Default = false.
+     */
+    public boolean event_pooling = false;
+    /**
+     * Algorithm of the random number generators (Random or any java.util.random algorithm, such as
+     * L64X128MixRandom, Xoshiro256PlusPlus or SplittableRandom). Default = Random.
+     */
+    public String rng_algorithm = "Random";
+
+    /* Task parameters */
+    public String task_distribution = "deterministic";
+    public double arrival_rate = 0.25; // in tasks per second
+    public String service_time_distribution = "deterministic";
+    public double service_time = 1; // in seconds
+    public double alpha_pareto = 2.5; // if pareto task distribution
+    public double rate_step = 0.05; // in tasks per second (if dynamic poisson task distribution)
+    public double time_step = 3600; // in seconds (if dynamic poisson task distribution)
+    public double uniform_range = 1; // in seconds (if uniform service time distribution)
+    public double var_service_time = 1; // in seconds^2 (if lognormal service time distribution)
+    public String task_trace_file = null; // if trace task distribution
+    public boolean task_trace_binary = false; // binary or csv task trace file
+
+    /* Base station parameters */
+    public double active_consumption = 1;
+    public double idle_consumption = 0.7;
+    public double sleep_consumption = 0.1;
+    public double transition_consumption = 0.7;
+    public double active_to_sleep_t = 0;
+    public double sleep_to_active_t = 5;
+
+    /* Server parameters */
+    public int num_servers = 1; // servers (carriers) sharing the task queue, each with its own power state
+    public int always_on_servers = 0; // servers that never sleep
+
+    /* Queue parameters */
+    public int queue_capacity = 0; // maximum number of tasks in the base station (0 for an unbounded queue)
+    public String drop_policy = "droptail"; // droptail, drophead or deadline
+    public double max_waiting_time = 0; // in seconds (if deadline drop policy)
+
+    /* Energy management parameters */
+    public String scheme = "coalescing"; // single, multiple, coalescing or the name of a SleepPolicy class
+    public double inactivity_t = 2;
+    public int sleep_to_active_qth = 1; 
+    public double sleeping_t = 5;
+    public double sleep_to_active_tth = 0;
+    public boolean dynamic_qth = false;
+    public double target_delay = 0;
+
+    /* Handover parameters (network mode only) */
+    public double handover_probability = 0; // probability of handing a new task over to the next cell
+    public double handover_delay = 0; // in seconds (also the lookahead of the parallel network simulation)
+
+    /* Time series sampling parameters */
+    public double sampling_interval = 0; // in seconds (0 to disable sampling)
+    public String samples_file = null;
+    public boolean samples_binary = false; // binary records instead of CSV rows
+
+    /* Task delay statistics */
+    public double[] delay_percentiles = {50, 95, 99, 99.9}; // percentiles of the task delay reported
+
+    /* Steady-state estimation parameters */
+    public double steady_state_interval = 0; // in seconds (0 to disable steady-state estimation)
+    public double steady_state_precision = 0; // target relative half width (0 to disable the stopping rule)
+    public double steady_state_confidence = 0.95;
+
+    /* Checkpoint parameters */
+    public double checkpoint_interval = 0; // in seconds (0 to disable checkpoints)
+    public String checkpoint_file = null;
+
+    /**
+     * Writer of the binary trace (null if disabled).
+     */
+    public transient TraceWriter trace;
+    /**
+     * Writer of the checkpoints (null if disabled).
+     */
+    public transient CheckpointWriter checkpoint;
+    /**
+     * Instant of the next checkpoint (in seconds).
+     */
+    private double next_checkpoint_time;
+    /**
+     * Event handler.
+     */
+    public EventList event_handler;
+    /**
+     * The simulated base station.
+     */
+    public BaseStation bs;
+
+    /**
+     * Creates a new simulation with the default parameters.
+     */
+    public Simulation () {}
+
+    /**
+     * Returns a new simulation with the same parameters as this one and no runtime state.
+     *
+     * @return a copy of this simulation
+     */
+    public Simulation copy () {
+	Simulation s = null;
+	try {
+	    s = (Simulation) super.clone();
+	} catch (CloneNotSupportedException e) {
+	    EnergyAwareBaseStationSimulator.printError("Simulation copy exception: " + e.getMessage());
+	}
+	s.event_handler = null;
+	s.bs = null;
+	s.trace = null;
+	s.checkpoint = null;
+	return s;
+    }
+
+    /**
+     * Sets the simulation parameter with the specified name (the name of the corresponding field).
+     * A coalescing queue threshold of 0 enables the dynamic threshold, as in the config file.
+     *
+     * @param name  the parameter name
+     * @param value the new parameter value
+     */
+    public void setParameter (String name, String value) {
+	try {
+	    Field field = Simulation.class.getField(name);
+	    Class<?> type = field.getType();
+	    if (type == double.class) {
+		field.setDouble(this, Double.parseDouble(value));
+	    } else if (type == int.class) {
+		field.setInt(this, Integer.parseInt(value));
+	    } else if (type == long.class) {
+		field.setLong(this, Long.parseLong(value));
+	    } else if (type == boolean.class) {
+		field.setBoolean(this, Boolean.parseBoolean(value));
+	    } else if (type == String.class) {
+		field.set(this, value);
+	    } else {
+		EnergyAwareBaseStationSimulator.printError("Invalid simulation parameter: " + name);
+	    }
+	} catch (NoSuchFieldException e) {
+	    EnergyAwareBaseStationSimulator.printError("Unknown simulation parameter: " + name);
+	} catch (NumberFormatException e) {
+	    EnergyAwareBaseStationSimulator.printError("Invalid value for simulation parameter " + name + ": " + value);
+	} catch (IllegalAccessException e) {
+	    EnergyAwareBaseStationSimulator.printError("Invalid simulation parameter: " + name);
+	}
+	if (name.equals("sleep_to_active_qth")) {
+	    dynamic_qth = (sleep_to_active_qth == 0);
+	    if (dynamic_qth) {
+		sleep_to_active_qth = 1;
+	    }
+	}
+    }
+
+    /**
+     * Derives a seed for an independent run from the specified base seed and run index (SplitMix64 mixing).
+     *
+     * @param seed  the base seed
+     * @param index the run index
+     * @return the derived seed
+     */
+    public static long deriveSeed (long seed, long index) {
+	long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+	z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+	z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+	return z ^ (z >>> 31);
+    }
+
+    /**
+     * Reads the simulation parameters from the specified config file.
+     *
+     * @param config_file the config file reader, closed on return
+     */
+    public void readConfig (BufferedReader config_file) {
+	try {
+	    for (String line; (line = config_file.readLine()) != null;) {
+		if (line.startsWith(";")) {
+		    // Just a comment
+		    continue;
+		} else {
+		    String[] line_fields = line.split("\\s+");
+		    if (line_fields[0].equals("TASKS") && line_fields.length > 1 && line_fields[1].equals("trace")) {
+			task_distribution = line_fields[1];
+			if (line_fields.length < 3) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: missing task trace file!");
+			}
+			task_trace_file = line_fields[2];
+			if (line_fields.length > 3) {
+			    if (line_fields[3].equals("binary") || line_fields[3].equals("csv")) {
+				task_trace_binary = line_fields[3].equals("binary");
+			    } else {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid task trace format!");
+			    }
+			}
+		    } else if (line_fields[0].equals("TASKS")) {
+			if (line_fields[1].equals("deterministic") || line_fields[1].equals("poisson") || line_fields[1].equals("pareto") || line_fields[1].equals("dynpoisson")) {
+			    task_distribution = line_fields[1];
+			} else {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid task distribution!");
+			}
+			try {
+			    arrival_rate = Double.parseDouble(line_fields[2]);
+			} catch (NumberFormatException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid task arrival rate!");
+			}
+			if (arrival_rate <= 0) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid task arrival rate!");
+			}
+			if (line_fields[1].equals("pareto")) {
+			    try {
+				alpha_pareto = Double.parseDouble(line_fields[3]);
+			    } catch (NumberFormatException e) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid alpha pareto parameter!");
+			    }
+			    if (alpha_pareto <= 1) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid alpha pareto parameter!");
+			    }
+			}
+			if (line_fields[1].equals("dynpoisson")) {
+			    try {
+				rate_step = Double.parseDouble(line_fields[3]);
+			    } catch (NumberFormatException e) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid rate step parameter!");
+			    }
+			    try {
+				time_step = Double.parseDouble(line_fields[4]);
+			    } catch (NumberFormatException e) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid time step parameter!");
+			    }				
+			    if (time_step <= 0) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid time step parameter!");
+			    }
+			}
+		    } else if (line_fields[0].equals("SERVICE") && line_fields.length > 1 && line_fields[1].equals("trace")) {
+			service_time_distribution = line_fields[1];
+		    } else if (line_fields[0].equals("SERVICE")) {
+			if (line_fields[1].equals("deterministic") || line_fields[1].equals("uniform") || line_fields[1].equals("exponential") || line_fields[1].equals("lognormal")) {
+			    service_time_distribution = line_fields[1];
+			} else {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid service time distribution!");
+			}
+			try {
+			    service_time = Double.parseDouble(line_fields[2]);
+			} catch (NumberFormatException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid service time!");
+			}
+			if (service_time <= 0) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid service time!");
+			}
+			if (line_fields[1].equals("uniform")) {
+			    try {
+				uniform_range = Double.parseDouble(line_fields[3]);
+			    } catch (NumberFormatException e) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid uniform range length!");
+			    }
+			    if (uniform_range <= 0 || service_time - uniform_range/2.0 <= 0) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid uniform range length!");
+			    }
+			}
+			if (line_fields[1].equals("lognormal")) {
+			    try {
+				var_service_time = Double.parseDouble(line_fields[3]);
+			    } catch (NumberFormatException e) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid service time variance!");
+			    }
+			    if (var_service_time <= 0) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid service time variance!");
+			    }
+			}
+		    } else if (line_fields[0].equals("POWER")) {
+			try {
+			    active_consumption = Double.parseDouble(line_fields[1]);
+			    idle_consumption = Double.parseDouble(line_fields[2]);
+			    sleep_consumption = Double.parseDouble(line_fields[3]);
+			    transition_consumption = Double.parseDouble(line_fields[4]);
+			} catch (NumberFormatException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid power consumptions!");
+			}
+			if (active_consumption < 0 || idle_consumption < 0 || sleep_consumption < 0 || transition_consumption < 0 || 
+			    idle_consumption > active_consumption || sleep_consumption > idle_consumption) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid power consumptions!");
+			}
+		    } else if (line_fields[0].equals("TRANSITIONS")) {
+			try {
+			    active_to_sleep_t = Double.parseDouble(line_fields[1]);
+			    sleep_to_active_t = Double.parseDouble(line_fields[2]);
+			} catch (NumberFormatException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid transition times!");
+			}
+			if (active_to_sleep_t < 0 || sleep_to_active_t < 0) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid transition times!");
+			}
+		    } else if (line_fields[0].equals("SCHEME")) {
+			scheme = line_fields[1];
+			createSleepPolicy();
+			if (line_fields[1].equals("coalescing")) {
+			    try {
+				inactivity_t = Double.parseDouble(line_fields[2]);
+				sleep_to_active_qth = Integer.parseInt(line_fields[3]);
+				sleep_to_active_tth = Double.parseDouble(line_fields[4]);
+				if (sleep_to_active_qth == 0) {
+				    dynamic_qth = true;
+				    sleep_to_active_qth = 1;
+				    target_delay = Double.parseDouble(line_fields[5]);
+				}
+			    } catch (NumberFormatException e) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid coalescing parameters!");
+			    }
+			    if (inactivity_t < 0 || sleep_to_active_qth <= 0 || sleep_to_active_tth < 0 || target_delay < 0) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid coalescing parameters!");
+			    }
+			} else {
+			    try {
+				inactivity_t = Double.parseDouble(line_fields[2]);
+				sleeping_t = Double.parseDouble(line_fields[3]);
+			    } catch (NumberFormatException e) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid sleeping times!");
+			    }
+			    if (inactivity_t < 0 || sleeping_t <= 0) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid sleeping times!");
+			    }
+			}
+		    } else if (line_fields[0].equals("EVENTS")) {
+			if (line_fields[1].equals("binaryheap") || line_fields[1].equals("pairingheap") || line_fields[1].equals("calendarqueue")) {
+			    event_set = line_fields[1];
+			} else {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid event list implementation!");
+			}
+			if (line_fields.length > 2) {
+			    if (line_fields[2].equals("pooled")) {
+				event_pooling = true;
+			    } else {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid event list option!");
+			    }
+			}
+		    } else if (line_fields[0].equals("RNG")) {
+			try {
+			    RandomGeneratorFactory.of(line_fields[1]);
+			} catch (IllegalArgumentException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid random number generator!");
+			}
+			rng_algorithm = line_fields[1];
+		    } else if (line_fields[0].equals("SERVERS")) {
+			try {
+			    num_servers = Integer.parseInt(line_fields[1]);
+			    if (line_fields.length > 2) {
+				always_on_servers = Integer.parseInt(line_fields[2]);
+			    }
+			} catch (NumberFormatException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid number of servers!");
+			}
+			if (num_servers <= 0 || always_on_servers < 0 || always_on_servers > num_servers) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid number of servers!");
+			}
+		    } else if (line_fields[0].equals("QUEUE")) {
+			try {
+			    queue_capacity = Integer.parseInt(line_fields[1]);
+			    if (line_fields.length > 2) {
+				if (line_fields[2].equals("droptail") || line_fields[2].equals("drophead") || line_fields[2].equals("deadline")) {
+				    drop_policy = line_fields[2];
+				} else {
+				    EnergyAwareBaseStationSimulator.printError("Config file: invalid drop policy!");
+				}
+			    }
+			    if (drop_policy.equals("deadline")) {
+				max_waiting_time = Double.parseDouble(line_fields[3]);
+			    }
+			} catch (NumberFormatException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid queue parameters!");
+			} catch (ArrayIndexOutOfBoundsException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid queue parameters!");
+			}
+			if (queue_capacity < 0 || max_waiting_time < 0) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid queue parameters!");
+			}
+		    } else if (line_fields[0].equals("HANDOVER")) {
+			try {
+			    handover_probability = Double.parseDouble(line_fields[1]);
+			    handover_delay = Double.parseDouble(line_fields[2]);
+			} catch (NumberFormatException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid handover parameters!");
+			}
+			if (handover_probability < 0 || handover_probability > 1 || handover_delay <= 0) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid handover parameters!");
+			}
+		    } else if (line_fields[0].equals("SAMPLING")) {
+			try {
+			    sampling_interval = Double.parseDouble(line_fields[1]);
+			    samples_file = line_fields[2];
+			    if (line_fields.length > 3) {
+				if (line_fields[3].equals("csv") || line_fields[3].equals("binary")) {
+				    samples_binary = line_fields[3].equals("binary");
+				} else {
+				    EnergyAwareBaseStationSimulator.printError("Config file: invalid samples format!");
+				}
+			    }
+			} catch (NumberFormatException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid sampling parameters!");
+			} catch (ArrayIndexOutOfBoundsException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid sampling parameters!");
+			}
+			if (sampling_interval <= 0) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid sampling parameters!");
+			}
+		    } else if (line_fields[0].equals("PERCENTILES")) {
+			delay_percentiles = new double[line_fields.length - 1];
+			try {
+			    for (int i = 0; i < delay_percentiles.length; i++) {
+				delay_percentiles[i] = Double.parseDouble(line_fields[i + 1]);
+			    }
+			} catch (NumberFormatException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid delay percentiles!");
+			}
+			for (double p : delay_percentiles) {
+			    if (p <= 0 || p > 100) {
+				EnergyAwareBaseStationSimulator.printError("Config file: invalid delay percentiles!");
+			    }
+			}
+		    } else if (line_fields[0].equals("STEADYSTATE")) {
+			try {
+			    steady_state_interval = Double.parseDouble(line_fields[1]);
+			    if (line_fields.length > 2) {
+				steady_state_precision = Double.parseDouble(line_fields[2]);
+			    }
+			    if (line_fields.length > 3) {
+				steady_state_confidence = Double.parseDouble(line_fields[3]);
+			    }
+			} catch (NumberFormatException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid steady-state parameters!");
+			}
+			if (steady_state_interval <= 0 || steady_state_precision < 0 || steady_state_confidence <= 0 || steady_state_confidence >= 1) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid steady-state parameters!");
+			}
+		    } else if (line_fields[0].equals("CHECKPOINT")) {
+			try {
+			    checkpoint_interval = Double.parseDouble(line_fields[1]);
+			    checkpoint_file = line_fields[2];
+			} catch (NumberFormatException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid checkpoint parameters!");
+			} catch (ArrayIndexOutOfBoundsException e) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid checkpoint parameters!");
+			}
+			if (checkpoint_interval <= 0) {
+			    EnergyAwareBaseStationSimulator.printError("Config file: invalid checkpoint parameters!");
+			}
+		    }
+		}
+	    }
+	    config_file.close();
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while reading config file!");
+	}
+	// A sleeping base station would never wake up if its queue cannot reach the threshold
+	if (scheme.equals("coalescing") && !dynamic_qth && queue_capacity > 0 && sleep_to_active_qth > queue_capacity) {
+	    EnergyAwareBaseStationSimulator.printError("Config file: coalescing queue threshold above the queue capacity!");
+	}
+    }
+
+    /**
+     * Returns a new future event set of the configured implementation.
+     *
+     * @return the future event set
+     */
+    public FutureEventSet createFutureEventSet () {
+	FutureEventSet fes = null;
+	if (event_set.equals("binaryheap")) {
+	    fes = new BinaryHeapEventSet();
+	} else if (event_set.equals("pairingheap")) {
+	    fes = new PairingHeapEventSet();
+	} else if (event_set.equals("calendarqueue")) {
+	    fes = new CalendarQueueEventSet();
+	}
+	return fes;
+    }
+
+    /**
+     * Returns a new task generator with the configured arrival process.
+     *
+     * @return the task generator
+     */
+    public TaskGenerator createTaskGenerator () {
+	TaskGenerator tg = null;
+	if (task_distribution.equals("deterministic")) {
+	    tg = new DeterministicTaskGenerator(arrival_rate);
+	} else if (task_distribution.equals("poisson")) {
+	    tg = new PoissonTaskGenerator(arrival_rate);
+	} else if (task_distribution.equals("pareto")) {
+	    tg = new ParetoTaskGenerator(arrival_rate, alpha_pareto);
+	} else if (task_distribution.equals("dynpoisson")) {
+	    tg = new DynPoissonTaskGenerator(arrival_rate, rate_step, time_step);
+	} else if (task_distribution.equals("trace")) {
+	    tg = new TraceTaskGenerator(task_trace_file, task_trace_binary);
+	}
+	return tg;
+    }
+
+    /**
+     * Returns a new service time generator with the configured distribution.
+     * Trace service times are taken from the specified task generator, which must replay a trace.
+     *
+     * @param tg the task generator of the base station
+     * @return the service time generator
+     */
+    public ServiceTimeGenerator createServiceTimeGenerator (TaskGenerator tg) {
+	ServiceTimeGenerator stg = null;
+	if (service_time_distribution.equals("trace")) {
+	    if (!(tg instanceof TraceTaskGenerator)) {
+		EnergyAwareBaseStationSimulator.printError("Config file: trace service times require a trace task distribution!");
+	    }
+	    stg = new TraceServiceTimeGenerator((TraceTaskGenerator) tg);
+	} else if (service_time_distribution.equals("deterministic")) {
+	    stg = new DeterministicServiceTimeGenerator(service_time);
+	} else if (service_time_distribution.equals("uniform")) {
+	    stg = new UniformServiceTimeGenerator(service_time, uniform_range);
+	} else if (service_time_distribution.equals("exponential")) {
+	    stg = new ExponentialServiceTimeGenerator(service_time);
+	} else if (service_time_distribution.equals("lognormal")) {
+	    stg = new LognormalServiceTimeGenerator(service_time, var_service_time);
+	}
+	return stg;
+    }
+
+    /**
+     * Returns a new energy management policy of the configured scheme.
+     * Other schemes than the built-in ones are loaded as the SleepPolicy class with that name.
+     *
+     * @return the energy management policy
+     */
+    public SleepPolicy createSleepPolicy () {
+	SleepPolicy policy = null;
+	if (scheme.equals("single")) {
+	    policy = new SingleSleepPolicy();
+	} else if (scheme.equals("multiple")) {
+	    policy = new MultipleSleepPolicy();
+	} else if (scheme.equals("coalescing")) {
+	    policy = new CoalescingSleepPolicy();
+	} else {
+	    try {
+		policy = (SleepPolicy) Class.forName(scheme).getDeclaredConstructor().newInstance();
+	    } catch (ReflectiveOperationException e) {
+		EnergyAwareBaseStationSimulator.printError("Invalid energy management scheme: " + scheme);
+	    } catch (ClassCastException e) {
+		EnergyAwareBaseStationSimulator.printError("Invalid energy management scheme: " + scheme);
+	    }
+	}
+	return policy;
+    }
+
+    /**
+     * Returns the random number generator of the specified stream of this simulation (0 for task arrivals,
+     * 1 for service times and 2 for handovers). With the default algorithm, stream i is a java.util.Random
+     * seeded with simulation_seed + i. Otherwise, the streams are split from (or jumped ahead of) a single
+     * generator seeded with simulation_seed, so they do not overlap, and are seeded with seeds derived from
+     * simulation_seed if the algorithm can do neither.
+     *
+     * @param stream the index of the stream
+     * @return the random number generator
+     */
+    public RandomGenerator createRandomGenerator (int stream) {
+	if (rng_algorithm.equals("Random")) {
+	    return new Random(simulation_seed + stream);
+	}
+	RandomGeneratorFactory<RandomGenerator> factory = RandomGeneratorFactory.of(rng_algorithm);
+	RandomGenerator root = factory.create(simulation_seed);
+	if (root instanceof SplittableGenerator) {
+	    RandomGenerator generator = ((SplittableGenerator) root).split();
+	    for (int i = 0; i < stream; i++) {
+		generator = ((SplittableGenerator) root).split();
+	    }
+	    return generator;
+	} else if (root instanceof JumpableGenerator) {
+	    for (int i = 0; i < stream; i++) {
+		((JumpableGenerator) root).jump();
+	    }
+	    return root;
+	}
+	return factory.create(deriveSeed(simulation_seed, stream));
+    }
+
+    /**
+     * Returns a new base station with the configured generators, seeded from the simulation seed.
+     * Its initial events are added to the event handler, that must have been already created.
+     *
+     * @param cell the index of the cell, used to tag its events
+     * @return the base station
+     */
+    public BaseStation createBaseStation (int cell) {
+	TaskGenerator tg = createTaskGenerator();
+	tg.setRandomGenerator(createRandomGenerator(0));
+	ServiceTimeGenerator stg = createServiceTimeGenerator(tg);
+	stg.setRandomGenerator(createRandomGenerator(1));
+	return new BaseStation(this, tg, stg, cell);
+    }
+
+    /**
+     * Runs the simulation from scratch and returns its results.
+     *
+     * @return the statistics collected by the base station
+     */
+    public SimulationResults run () {
+	// Event handler initialization
+	event_handler = new EventList(simulation_length, createFutureEventSet(), new EventPool(event_pooling));
+	trace = trace_file != null ? new TraceWriter(trace_file) : null;
+
+	// Base station initialization
+	bs = createBaseStation(0);
+	event_handler.setEventHandler(bs);
+
+	// Checkpoints initialization
+	if (checkpoint_interval > 0) {
+	    if (trace_file != null || sampling_interval > 0 || task_distribution.equals("trace") || !rng_algorithm.equals("Random")) {
+		EnergyAwareBaseStationSimulator.printError("Checkpoints require the Random generator and no trace file, sampling or task trace!");
+	    }
+	    checkpoint = new CheckpointWriter(checkpoint_file);
+	    next_checkpoint_time = checkpoint_interval;
+	}
+
+	return processEvents();
+    }
+
+    /**
+     * Resumes this simulation, read from a checkpoint, and returns its results.
+     * The results are the same as those of the simulation run without interruption.
+     *
+     * @return the statistics collected by the base station
+     */
+    public SimulationResults resume () {
+	checkpoint = new CheckpointWriter(checkpoint_file);
+	return processEvents();
+    }
+
+    /**
+     * Handles the pending events until the end of the simulation, writing the scheduled checkpoints.
+     *
+     * @return the statistics collected by the base station
+     */
+    private SimulationResults processEvents () {
+	// Events processing
+	Event event;
+	while ((event = event_handler.getNextEvent(true)) != null) {
+	    event_handler.handleEvent(event);
+	    if (checkpoint != null && event_handler.getSimulationTime() >= next_checkpoint_time) {
+		while (next_checkpoint_time <= event_handler.getSimulationTime()) {
+		    next_checkpoint_time += checkpoint_interval;
+		}
+		checkpoint.write(this);
+	    }
+	}
+
+	if (checkpoint != null) {
+	    checkpoint.close();
+	    checkpoint = null;
+	}
+	if (trace != null) {
+	    trace.close();
+	    trace = null;
+	}
+	bs.finishSampling();
+	bs.task_generator.close();
+	return bs.getResults();
+    }
+}
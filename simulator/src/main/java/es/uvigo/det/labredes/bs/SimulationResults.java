@@ -0,0 +1,254 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class holds the main base station statistics obtained in a simulation run.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class SimulationResults {
+    /**
+     * Length of the simulation (in seconds).
+     */
+    public double simulation_length;
+    /**
+     * Number of tasks received, served and discarded.
+     */
+    public long tasks_received, tasks_served, tasks_discarded;
+    /**
+     * Number of new tasks handed over to the next cell (network mode only).
+     */
+    public long tasks_handed_over;
+    /**
+     * Number of tasks that found the queue full and number of tasks dropped for exceeding the maximum waiting time.
+     */
+    public long tasks_blocked, tasks_expired;
+    /**
+     * Fraction of the received tasks that found the queue full.
+     */
+    public double blocking_probability;
+    /**
+     * Average and maximum task delay (in seconds).
+     */
+    public double average_task_delay, maximum_task_delay;
+    /**
+     * Histogram of the task delays, the reported percentiles and their estimated values (in seconds).
+     */
+    public DelayHistogram delay_histogram;
+    public double[] delay_percentiles, delay_quantiles;
+    /**
+     * Time in each power state (in seconds), indexed by BaseStationState ordinal.
+     */
+    public double[] time_in_states;
+    /**
+     * Time in each power state (in seconds) of each server (null if the results aggregate several cells).
+     */
+    public double[][] server_time_in_states;
+    /**
+     * Average power consumption (in Watts and normalized).
+     */
+    public double power_consumption, norm_power_consumption;
+    /**
+     * True if the coalescing threshold was dynamically adjusted.
+     */
+    public boolean dynamic_qth;
+    /**
+     * Time-averaged coalescing queue threshold (in tasks).
+     */
+    public double average_sleep_to_active_qth;
+    /**
+     * Transitions rate (in number of transitions per hour).
+     */
+    public double transitions_rate;
+    /**
+     * True if steady-state estimates are available.
+     */
+    public boolean steady_state;
+    /**
+     * Simulated time deleted as warm-up (in seconds).
+     */
+    public double warmup_time;
+    /**
+     * Steady-state estimates and half widths of their confidence intervals.
+     */
+    public double steady_state_delay, steady_state_delay_hw;
+    public double steady_state_power, steady_state_power_hw, steady_state_norm_power, steady_state_norm_power_hw;
+    /**
+     * Confidence level of the steady-state intervals.
+     */
+    public double confidence;
+
+    /**
+     * Returns the time spent in the specified state.
+     *
+     * @param st the base station state
+     * @return time in the specified state (in seconds)
+     */
+    public double getTimeInState (BaseStationState st) {
+	return time_in_states[st.ordinal()];
+    }
+
+    /**
+     * Returns the statistics of a network of cells: task counters are summed, the task delay is averaged
+     * over all the tasks served, and times in states, power consumption and transitions rate are averaged
+     * over the cells. The normalized power consumption is the total power over the total reference power.
+     *
+     * @param cells the statistics of each cell, obtained in the same simulation run
+     * @return the aggregate statistics
+     */
+    public static SimulationResults aggregate (SimulationResults[] cells) {
+	SimulationResults results = new SimulationResults();
+	results.simulation_length = cells[0].simulation_length;
+	results.time_in_states = new double[BaseStationState.values().length];
+	double sum_delays = 0, sum_reference_power = 0;
+	for (SimulationResults cell : cells) {
+	    results.tasks_received += cell.tasks_received;
+	    results.tasks_served += cell.tasks_served;
+	    results.tasks_discarded += cell.tasks_discarded;
+	    results.tasks_handed_over += cell.tasks_handed_over;
+	    results.tasks_blocked += cell.tasks_blocked;
+	    results.tasks_expired += cell.tasks_expired;
+	    sum_delays += cell.average_task_delay * cell.tasks_served;
+	    if (cell.maximum_task_delay > results.maximum_task_delay) {
+		results.maximum_task_delay = cell.maximum_task_delay;
+	    }
+	    for (int i = 0; i < results.time_in_states.length; i++) {
+		results.time_in_states[i] += cell.time_in_states[i] / cells.length;
+	    }
+	    results.power_consumption += cell.power_consumption / cells.length;
+	    sum_reference_power += cell.power_consumption / cell.norm_power_consumption;
+	    results.dynamic_qth |= cell.dynamic_qth;
+	    results.average_sleep_to_active_qth += cell.average_sleep_to_active_qth / cells.length;
+	    results.transitions_rate += cell.transitions_rate / cells.length;
+	}
+	results.average_task_delay = results.tasks_served > 0 ? sum_delays / results.tasks_served : 0;
+	if (cells[0].delay_histogram != null) {
+	    DelayHistogram histogram = new DelayHistogram();
+	    for (SimulationResults cell : cells) {
+		histogram.add(cell.delay_histogram);
+	    }
+	    results.setDelayHistogram(histogram, cells[0].delay_percentiles);
+	}
+	results.blocking_probability = results.tasks_received > 0 ? (double) results.tasks_blocked / results.tasks_received : 0;
+	results.norm_power_consumption = results.power_consumption * cells.length / sum_reference_power;
+	return results;
+    }
+
+    /**
+     * Sets the histogram of the task delays and estimates the specified percentiles from it.
+     *
+     * @param histogram   the histogram of the task delays
+     * @param percentiles the percentiles to be estimated
+     */
+    public void setDelayHistogram (DelayHistogram histogram, double[] percentiles) {
+	delay_histogram = histogram;
+	delay_percentiles = percentiles;
+	delay_quantiles = new double[percentiles.length];
+	for (int i = 0; i < percentiles.length; i++) {
+	    delay_quantiles[i] = histogram.getQuantile(percentiles[i] / 100.0);
+	}
+    }
+
+    /**
+     * Returns the header of the CSV rows produced by toCsv.
+     *
+     * @return the comma-separated column names
+     */
+    public static String csvHeader () {
+	StringBuilder sb = new StringBuilder("tasks_received,tasks_served,tasks_discarded,average_task_delay,maximum_task_delay");
+	for (BaseStationState st : BaseStationState.values()) {
+	    sb.append(",time_").append(st.toString().toLowerCase());
+	}
+	sb.append(",power_consumption,norm_power_consumption,average_sleep_to_active_qth,transitions_rate,tasks_handed_over");
+	sb.append(",tasks_blocked,tasks_expired,blocking_probability");
+	return sb.toString();
+    }
+
+    /**
+     * Returns the statistics as a CSV row.
+     *
+     * @return the comma-separated statistics
+     */
+    public String toCsv () {
+	StringBuilder sb = new StringBuilder();
+	sb.append(tasks_received).append(',').append(tasks_served).append(',').append(tasks_discarded);
+	sb.append(',').append(average_task_delay).append(',').append(maximum_task_delay);
+	for (BaseStationState st : BaseStationState.values()) {
+	    sb.append(',').append(getTimeInState(st));
+	}
+	sb.append(',').append(power_consumption).append(',').append(norm_power_consumption);
+	sb.append(',').append(average_sleep_to_active_qth).append(',').append(transitions_rate);
+	sb.append(',').append(tasks_handed_over);
+	sb.append(',').append(tasks_blocked).append(',').append(tasks_expired).append(',').append(blocking_probability);
+	return sb.toString();
+    }
+
+    /**
+     * Prints on standard output the statistics.
+     */
+    public void print () {
+	printTaskStatistics();
+	printStateStatistics();
+    }
+
+    /**
+     * Prints on standard output the task counters and the task delay statistics.
+     */
+    public void printTaskStatistics () {
+	System.out.format("Tasks: received %d served %d discarded %d %n", tasks_received, tasks_served, tasks_discarded);
+	if (tasks_handed_over > 0) {
+	    System.out.format("Tasks handed over: %d %n", tasks_handed_over);
+	}
+	if (tasks_discarded > 0) {
+	    System.out.format("Tasks dropped: blocked %d expired %d blocking probability %.6f %n", tasks_blocked, tasks_expired, blocking_probability);
+	}
+	if (tasks_served > 0) {
+	    System.out.format("Task delay: average %.3f max %.3f %n", average_task_delay, maximum_task_delay);
+	    if (delay_quantiles != null && delay_quantiles.length > 0) {
+		System.out.print("Task delay percentiles:");
+		for (int i = 0; i < delay_quantiles.length; i++) {
+		    System.out.format(" p%s %.3f", percentileLabel(delay_percentiles[i]), delay_quantiles[i]);
+		}
+		System.out.format(" %n");
+	    }
+	}
+    }
+
+    /**
+     * Prints on standard output the time in states, power consumption, coalescing threshold, transitions rate
+     * and steady-state statistics.
+     */
+    public void printStateStatistics () {
+	for (BaseStationState st : BaseStationState.values()) {
+	    System.out.format("Time in state %s: %.3f %.2f %% %n", st, getTimeInState(st), 100.0 * getTimeInState(st) / simulation_length);
+	}
+	if (server_time_in_states != null && server_time_in_states.length > 1) {
+	    for (int s = 0; s < server_time_in_states.length; s++) {
+		System.out.format("Server %d:", s);
+		for (BaseStationState st : BaseStationState.values()) {
+		    System.out.format(" %s %.2f %%", st, 100.0 * server_time_in_states[s][st.ordinal()] / simulation_length);
+		}
+		System.out.format(" %n");
+	    }
+	}
+	System.out.format("Average power consumption: %.4f %.4f %n", power_consumption, norm_power_consumption);
+	if (dynamic_qth) {
+	    System.out.format("Average coalescing threshold: %.4f %n", average_sleep_to_active_qth);
+	} else {
+	    System.out.format("Average coalescing threshold: %d %n", (int) average_sleep_to_active_qth);
+	}
+	System.out.format("Transitions rate: %.4f %n", transitions_rate);
+	if (steady_state) {
+	    System.out.format("Steady state: warm-up %.3f confidence %.2f %% %n", warmup_time, 100.0 * confidence);
+	    System.out.format("Steady-state task delay: %.3f +- %.3f %n", steady_state_delay, steady_state_delay_hw);
+	    System.out.format("Steady-state power consumption: %.4f +- %.4f %.4f +- %.4f %n", steady_state_power, steady_state_power_hw, steady_state_norm_power, steady_state_norm_power_hw);
+	}
+    }
+
+    /**
+     * Returns the label of the specified percentile, without decimals if it is a whole number.
+     */
+    private static String percentileLabel (double p) {
+	return p == Math.rint(p) ? Long.toString((long) p) : Double.toString(p);
+    }
+}
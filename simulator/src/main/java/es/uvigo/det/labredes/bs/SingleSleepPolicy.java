@@ -0,0 +1,47 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class implements the single sleeping period scheme: a server sleeps for the sleeping time and then
+ * wakes up, staying active until its next task has been served even if it finds no task to serve.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public final class SingleSleepPolicy implements SleepPolicy {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Does nothing: new tasks do not wake up sleeping servers.
+     *
+     * @param bs the base station
+     * @param t  current time
+     */
+    public void taskArrived (BaseStation bs, double t) {}
+
+    /**
+     * Does nothing.
+     *
+     * @param bs the base station
+     * @param s  the server
+     * @param t  current time
+     */
+    public void taskServed (BaseStation bs, int s, double t) {}
+
+    /**
+     * Schedules the end of the sleeping period of a server that has just gone to sleep.
+     *
+     * @param bs the base station
+     * @param s  the server
+     * @param st the new state of the server
+     * @param t  current time
+     * @return the state the server actually enters
+     */
+    public BaseStationState stateChanged (BaseStation bs, int s, BaseStationState st, double t) {
+	if (st == BaseStationState.SLEEP) {
+	    bs.scheduleWakeUp(s, t + bs.sim.sleeping_t);
+	} else if (st == BaseStationState.ACTIVE_SERVE && !bs.isServing(s)) {
+	    return BaseStationState.ACTIVE_IDLE;
+	}
+	return st;
+    }
+}
@@ -0,0 +1,46 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.Serializable;
+
+/**
+ * This interface defines the callbacks of an energy management policy, which decides when the servers
+ * of a base station go to sleep and when they wake up. The base station serves the tasks, claims idle
+ * servers for new tasks and sends servers to sleep after the inactivity time; the policy does the rest
+ * through the public methods of BaseStation.
+ * Implementations need a public constructor without arguments and read their parameters from the simulation.
+ * Implementations are serialized with the base station in checkpoints, so their fields must be serializable.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public interface SleepPolicy extends Serializable {
+    /**
+     * Called after a new task has arrived at the base station (and an idle server has been claimed for it, if any).
+     *
+     * @param bs the base station
+     * @param t  current time
+     */
+    void taskArrived (BaseStation bs, double t);
+
+    /**
+     * Called after a server has completed a task (and has started serving the next one, if any).
+     *
+     * @param bs the base station
+     * @param s  the server
+     * @param t  current time
+     */
+    void taskServed (BaseStation bs, int s, double t);
+
+    /**
+     * Called when a server reaches a new state, before the base station schedules the end of a transition.
+     * A server reaching ACTIVE_SERVE may have found no task to serve, and a server reaching
+     * TRANSITION_TO_ACTIVE may be kept asleep by returning SLEEP.
+     *
+     * @param bs the base station
+     * @param s  the server
+     * @param st the new state of the server
+     * @param t  current time
+     * @return the state the server actually enters
+     */
+    BaseStationState stateChanged (BaseStation bs, int s, BaseStationState st, double t);
+}
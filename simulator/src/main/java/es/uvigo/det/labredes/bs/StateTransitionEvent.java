@@ -0,0 +1,92 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class extends Event class to simulate state transitions at the base station.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class StateTransitionEvent extends Event<BaseStation> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The new state of the base station.
+     */
+    public BaseStationState new_state;
+    /**
+     * The server that changes its state.
+     */
+    public int server;
+
+    /**
+     * Creates a new event representing a state transition at the link.
+     *
+     * @param t      instant at which the base station changes its state
+     * @param state  new state of the base station
+     */
+    public StateTransitionEvent (double t, BaseStationState state) {
+	super(t);
+	new_state = state;
+    }
+
+    /**
+     * Compares two state transition events.
+     *
+     * @param obj the Object to be compared
+     * @return true if the specified event is equal to this event
+     */
+    public boolean equals (Object obj) {
+	if (obj == this) {
+	    return true;
+	}
+	if (!(obj instanceof StateTransitionEvent)) {
+            return false;
+        }
+	StateTransitionEvent event = (StateTransitionEvent) obj;
+	if (time == event.time && cell == event.cell && server == event.server && new_state == event.new_state) {
+	    return true;
+	}
+	return false;
+    }
+
+    /**
+     * Dispatches this event to the corresponding method of the specified handler.
+     *
+     * @param handler the EventHandler that handles the state transition event
+     */
+    public void dispatch (EventHandler handler) {
+	handler.handleStateTransitionEvent(this);
+    }
+
+    /**
+     * Returns a hash code consistent with equals.
+     *
+     * @return a hash code for this state transition event
+     */
+    public int hashCode () {
+	return 31 * (31 * (31 * server + cell) + Double.hashCode(time)) + new_state.ordinal();
+    }
+
+    /**
+     * Prints on standard output a message describing the state transition event.
+     *
+     * @param bs the base station that handles the event
+     */
+    public void print (BaseStation bs) {
+	if (bs.sim.num_servers > 1) {
+	    System.out.format("%.3f StateTransitionEvent %s %d%n", time, new_state, server);
+	} else {
+	    System.out.format("%.3f StateTransitionEvent %s%n", time, new_state);
+	}
+    }
+
+    /**
+     * Writes a binary record describing the state transition event.
+     *
+     * @param bs    the base station that handles the event
+     * @param trace the TraceWriter of the simulation
+     */
+    public void trace (BaseStation bs, TraceWriter trace) {
+	trace.write(time, TraceWriter.STATE_TRANSITION, -1, bs.queue_size, new_state.ordinal(), server);
+    }
+}
@@ -0,0 +1,250 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.Serializable;
+
+/**
+ * This class estimates the steady-state task delay and power consumption of a single run.
+ * The run is divided into intervals of simulated time in which the consumed energy, the
+ * number of tasks served and their total delay are accumulated. At most MAX_INTERVALS are
+ * kept: when full, adjacent intervals are merged and the interval length doubles.
+ * The initial transient is removed with the MSER-5 rule and the remaining intervals are
+ * grouped into batches whose means give a Student-t confidence interval (batch means method).
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class SteadyStateEstimator implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Maximum number of intervals stored (must be even).
+     */
+    public static final int MAX_INTERVALS = 1024;
+    /**
+     * Number of batches used by the batch means method.
+     */
+    public static final int NUM_BATCHES = 20;
+    /**
+     * The stopping rule is checked every this number of closed intervals.
+     */
+    public static final int CHECK_PERIOD = 16;
+
+    /**
+     * The length of each interval (in seconds).
+     */
+    private double interval_length;
+    /**
+     * Per-interval energy (in Joules), sum of task delays (in seconds) and tasks served.
+     */
+    private double[] energy, delay_sum;
+    private long[] served;
+    /**
+     * The number of closed intervals.
+     */
+    private int num_intervals;
+    /**
+     * The end of the current interval and the last instant accounted in it.
+     */
+    private double interval_end, last_time;
+    /**
+     * Target relative half width (0 to disable the stopping rule) and confidence level.
+     */
+    private double target_precision, confidence;
+    /**
+     * True once the target precision has been reached.
+     */
+    private boolean precision_reached;
+
+    /**
+     * Creates a new steady-state estimator.
+     *
+     * @param length initial interval length (in seconds)
+     * @param prec   target relative half width of the confidence intervals (0 to disable the stopping rule)
+     * @param conf   confidence level of the intervals (e.g. 0.95)
+     */
+    public SteadyStateEstimator (double length, double prec, double conf) {
+	interval_length = length;
+	target_precision = prec;
+	confidence = conf;
+	energy = new double[MAX_INTERVALS];
+	delay_sum = new double[MAX_INTERVALS];
+	served = new long[MAX_INTERVALS];
+	num_intervals = 0;
+	last_time = 0;
+	interval_end = length;
+	precision_reached = false;
+    }
+
+    /**
+     * Accounts the energy consumed up to the specified instant at the specified power.
+     *
+     * @param t     the current instant (in seconds)
+     * @param power the power consumed since the last call (in Watts)
+     */
+    public void advance (double t, double power) {
+	while (t >= interval_end) {
+	    energy[num_intervals] += power * (interval_end - last_time);
+	    last_time = interval_end;
+	    closeInterval();
+	}
+	energy[num_intervals] += power * (t - last_time);
+	last_time = t;
+    }
+
+    /**
+     * Accounts a task served in the current interval.
+     *
+     * @param delay the task delay (in seconds)
+     */
+    public void addTaskDelay (double delay) {
+	delay_sum[num_intervals] += delay;
+	served[num_intervals]++;
+    }
+
+    /**
+     * Returns true if the confidence intervals are narrower than the target precision.
+     *
+     * @return true if the simulation can stop
+     */
+    public boolean isPrecisionReached () {
+	return precision_reached;
+    }
+
+    /**
+     * Returns the amount of simulated time removed as warm-up by the MSER-5 rule.
+     *
+     * @return the warm-up time (in seconds)
+     */
+    public double getWarmupTime () {
+	return getWarmupIntervals() * interval_length;
+    }
+
+    /**
+     * Fills the steady-state estimates of the specified results.
+     *
+     * @param normalizer the power used to normalize the power consumption (in Watts)
+     * @param results    the results to be filled
+     */
+    public void estimate (double normalizer, SimulationResults results) {
+	SampleStatistics delay = new SampleStatistics();
+	SampleStatistics power = new SampleStatistics();
+	batchMeans(getWarmupIntervals(), delay, power);
+	results.steady_state = true;
+	results.warmup_time = getWarmupTime();
+	results.steady_state_delay = delay.getMean();
+	results.steady_state_delay_hw = delay.getHalfWidth(confidence);
+	results.steady_state_power = power.getMean();
+	results.steady_state_power_hw = power.getHalfWidth(confidence);
+	results.steady_state_norm_power = power.getMean() / normalizer;
+	results.steady_state_norm_power_hw = power.getHalfWidth(confidence) / normalizer;
+	results.confidence = confidence;
+    }
+
+    /**
+     * Closes the current interval, merging intervals when the storage is full.
+     */
+    private void closeInterval () {
+	num_intervals++;
+	if (num_intervals == MAX_INTERVALS) {
+	    for (int i = 0; i < MAX_INTERVALS / 2; i++) {
+		energy[i] = energy[2*i] + energy[2*i+1];
+		delay_sum[i] = delay_sum[2*i] + delay_sum[2*i+1];
+		served[i] = served[2*i] + served[2*i+1];
+	    }
+	    for (int i = MAX_INTERVALS / 2; i < MAX_INTERVALS; i++) {
+		energy[i] = delay_sum[i] = 0;
+		served[i] = 0;
+	    }
+	    num_intervals = MAX_INTERVALS / 2;
+	    interval_length *= 2;
+	}
+	interval_end = last_time + interval_length;
+	if (target_precision > 0 && num_intervals % CHECK_PERIOD == 0) {
+	    SampleStatistics delay = new SampleStatistics();
+	    SampleStatistics power = new SampleStatistics();
+	    batchMeans(getWarmupIntervals(), delay, power);
+	    precision_reached = delay.getCount() >= NUM_BATCHES &&
+		delay.getRelativeHalfWidth(confidence) <= target_precision &&
+		power.getRelativeHalfWidth(confidence) <= target_precision;
+	}
+    }
+
+    /**
+     * Computes the batch means of the closed intervals after the specified warm-up.
+     */
+    private void batchMeans (int warmup, SampleStatistics delay, SampleStatistics power) {
+	int n = num_intervals - warmup;
+	int batches = n < NUM_BATCHES ? n : NUM_BATCHES;
+	if (batches == 0) {
+	    return;
+	}
+	int batch_size = n / batches;
+	for (int b = 0; b < batches; b++) {
+	    double e = 0, d = 0;
+	    long s = 0;
+	    for (int i = warmup + b * batch_size; i < warmup + (b + 1) * batch_size; i++) {
+		e += energy[i];
+		d += delay_sum[i];
+		s += served[i];
+	    }
+	    power.add(e / (batch_size * interval_length));
+	    if (s > 0) {
+		delay.add(d / s);
+	    }
+	}
+    }
+
+    /**
+     * Returns the number of initial intervals to delete according to the MSER-5 rule,
+     * taking the largest truncation point of the power and delay series.
+     */
+    private int getWarmupIntervals () {
+	int m = num_intervals / 5;
+	if (m < 2) {
+	    return 0;
+	}
+	double[] power = new double[m];
+	double[] delay = new double[m];
+	double prev_delay = 0;
+	for (int j = 0; j < m; j++) {
+	    double e = 0, d = 0;
+	    long s = 0;
+	    for (int i = 5 * j; i < 5 * j + 5; i++) {
+		e += energy[i];
+		d += delay_sum[i];
+		s += served[i];
+	    }
+	    power[j] = e / (5 * interval_length);
+	    // Batches without served tasks repeat the previous delay
+	    delay[j] = prev_delay = (s > 0 ? d / s : prev_delay);
+	}
+	int d = Math.max(mser(power), mser(delay));
+	return 5 * d;
+    }
+
+    /**
+     * Returns the truncation point d (in batches) that minimizes the MSER statistic
+     * sum_{j>=d} (y_j - mean_d)^2 / (m-d)^2, searched over the first half of the series.
+     */
+    private static int mser (double[] y) {
+	int m = y.length;
+	double sum = 0, sum2 = 0;
+	for (int j = 0; j < m; j++) {
+	    sum += y[j];
+	    sum2 += y[j] * y[j];
+	}
+	int best_d = 0;
+	double best = Double.POSITIVE_INFINITY;
+	for (int d = 0; d <= m / 2; d++) {
+	    int k = m - d;
+	    double mser = (sum2 - sum * sum / k) / ((double) k * k);
+	    if (mser < best) {
+		best = mser;
+		best_d = d;
+	    }
+	    sum -= y[d];
+	    sum2 -= y[d] * y[d];
+	}
+	return best_d;
+    }
+}
@@ -0,0 +1,94 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class extends Event class to simulate the arrival of a new task.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class TaskArrivalEvent extends Event<BaseStation> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The task service time (in seconds).
+     */
+    public double task_stime;
+    /**
+     * The unique identifier of the new task.
+     */
+    public long task_id;
+    /**
+     * True if the task has been handed over from another cell.
+     */
+    public boolean handover;
+
+    /**
+     * Creates a new event representing the arrival of a new task.
+     *
+     * @param t      instant at which the new task arrives
+     * @param tid    identifier of the new task
+     * @param stime  time required to serve the new task
+     */
+    public TaskArrivalEvent (double t, long tid, double stime) {
+	super(t);
+	task_id = tid;
+	task_stime = stime;
+    }
+
+    /**
+     * Compares two task arrival events.
+     *
+     * @param obj the Object to be compared
+     * @return true if the specified event is equal to this event
+     */
+    public boolean equals (Object obj) {
+	if (obj == this) {
+	    return true;
+	}
+	if (!(obj instanceof TaskArrivalEvent)) {
+            return false;
+        }
+	TaskArrivalEvent event = (TaskArrivalEvent) obj;
+	if (time == event.time && cell == event.cell && task_id == event.task_id) {
+	    return true;
+	}
+	return false;
+    }
+
+    /**
+     * Dispatches this event to the corresponding method of the specified handler.
+     *
+     * @param handler the EventHandler that handles the task arrival event
+     */
+    public void dispatch (EventHandler handler) {
+	handler.handleTaskArrivalEvent(this);
+    }
+
+    /**
+     * Returns a hash code consistent with equals.
+     *
+     * @return a hash code for this task arrival event
+     */
+    public int hashCode () {
+	return 31 * (31 * cell + Double.hashCode(time)) + Long.hashCode(task_id);
+    }
+
+    /**
+     * Prints on standard output a message describing the task arrival event.
+     *
+     * @param bs the base station that handles the event
+     */
+    public void print (BaseStation bs) {
+	System.out.format("%.3f TaskArrivalEvent %d %d %n", time, task_id, bs.queue_size);
+    }
+
+    /**
+     * Writes a binary record describing the task arrival event.
+     *
+     * @param bs    the base station that handles the event
+     * @param trace the TraceWriter of the simulation
+     */
+    public void trace (BaseStation bs, TraceWriter trace) {
+	trace.write(time, TraceWriter.TASK_ARRIVAL, task_id, bs.queue_size, -1, 0);
+    }
+}
@@ -0,0 +1,85 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class extends Event class to simulate the drop of a task: a new arriving task,
+ * or a waiting one under the drophead and deadline policies.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class TaskDropEvent extends Event<BaseStation> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The unique identifier of the discarded task.
+     */
+    public long task_id;
+
+    /**
+     * Creates a new event representing the drop of a task.
+     *
+     * @param t      instant at which the task is discarded
+     * @param tid    identifier of the discarded task
+     */
+    public TaskDropEvent (double t, long tid) {
+	super(t);
+	task_id = tid;
+    }
+
+    /**
+     * Compares two task drop events.
+     *
+     * @param obj the Object to be compared
+     * @return true if the specified event is equal to this event
+     */
+    public boolean equals (Object obj) {
+	if (obj == this) {
+	    return true;
+	}
+	if (!(obj instanceof TaskDropEvent)) {
+            return false;
+        }
+	TaskDropEvent event = (TaskDropEvent) obj;
+	if (time == event.time && cell == event.cell && task_id == event.task_id) {
+	    return true;
+	}
+	return false;
+    }
+
+    /**
+     * Dispatches this event to the corresponding method of the specified handler.
+     *
+     * @param handler the EventHandler that handles the task drop event
+     */
+    public void dispatch (EventHandler handler) {
+	handler.handleTaskDropEvent(this);
+    }
+
+    /**
+     * Returns a hash code consistent with equals.
+     *
+     * @return a hash code for this task drop event
+     */
+    public int hashCode () {
+	return 31 * (31 * cell + Double.hashCode(time)) + Long.hashCode(task_id);
+    }
+
+    /**
+     * Prints on standard output a message describing the task drop event.
+     *
+     * @param bs the base station that handles the event
+     */
+    public void print (BaseStation bs) {
+	System.out.format("%.3f TaskDropEvent %d %d %n", time, task_id, bs.queue_size);
+    }
+
+    /**
+     * Writes a binary record describing the task drop event.
+     *
+     * @param bs    the base station that handles the event
+     * @param trace the TraceWriter of the simulation
+     */
+    public void trace (BaseStation bs, TraceWriter trace) {
+	trace.write(time, TraceWriter.TASK_DROP, task_id, bs.queue_size, -1, 0);
+    }
+}
@@ -1,6 +1,8 @@
 package es.uvigo.det.labredes.bs;
 
+import java.io.Serializable;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * This class simulates the arrival of a stream of tasks.
@@ -8,7 +10,9 @@ import java.util.Random;
  * @author Sergio Herreria-Alonso 
  * @version 1.0
  */
-abstract public class TaskGenerator {
+abstract public class TaskGenerator implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The task arrival rate (in tasks/s).
      */
@@ -20,7 +24,7 @@ abstract public class TaskGenerator {
     /**
      * The random number generator.
      */
-    public Random rng;
+    public RandomGenerator rng;
 
     /**
      * Creates a new random task generator.
@@ -43,12 +47,21 @@ abstract public class TaskGenerator {
     }
 
     /**
-     * Sets the seed for the random number generator.
+     * Sets the seed for the default (java.util.Random) random number generator.
      *
      * @param seed initial seed
      */
     public void setSeed (long seed) {
-	rng.setSeed(seed);
+	rng = new Random(seed);
+    }
+
+    /**
+     * Sets the random number generator.
+     *
+     * @param generator the random number generator
+     */
+    public void setRandomGenerator (RandomGenerator generator) {
+	rng = generator;
     }
 
     /**
@@ -57,4 +70,10 @@ abstract public class TaskGenerator {
      * @return instant at which the next task arrives (in seconds)
      */
     abstract public double getNextArrival ();
+
+    /**
+     * Releases the resources held by the generator, if any.
+     */
+    public void close () {
+    }
 }
@@ -0,0 +1,161 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * This class implements a FIFO queue of tasks stored in a ring buffer.
+ * Each task is described by its identifier, arrival time and service time,
+ * kept in parallel arrays so that no object is allocated per task.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class TaskQueue implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The task identifiers.
+     */
+    private long[] task_ids;
+    /**
+     * The task arrival times (in seconds).
+     */
+    private double[] arrival_times;
+    /**
+     * The task service times (in seconds).
+     */
+    private double[] service_times;
+    /**
+     * The position of the first task in the buffer.
+     */
+    private int head;
+    /**
+     * The number of tasks stored in the queue.
+     */
+    private int size;
+
+    /**
+     * Creates a new empty task queue.
+     */
+    public TaskQueue () {
+	this(64);
+    }
+
+    /**
+     * Creates a new empty task queue with the specified initial capacity.
+     *
+     * @param capacity initial number of tasks that can be stored without growing the buffer
+     */
+    public TaskQueue (int capacity) {
+	task_ids = new long[capacity];
+	arrival_times = new double[capacity];
+	service_times = new double[capacity];
+	head = size = 0;
+    }
+
+    /**
+     * Adds a task at the tail of the queue.
+     *
+     * @param tid     identifier of the task
+     * @param arrival instant at which the task arrived (in seconds)
+     * @param stime   time required to serve the task (in seconds)
+     */
+    public void enqueue (long tid, double arrival, double stime) {
+	if (size == task_ids.length) {
+	    grow();
+	}
+	int tail = head + size;
+	if (tail >= task_ids.length) {
+	    tail -= task_ids.length;
+	}
+	task_ids[tail] = tid;
+	arrival_times[tail] = arrival;
+	service_times[tail] = stime;
+	size++;
+    }
+
+    /**
+     * Removes the task at the head of the queue. The queue must not be empty.
+     */
+    public void dequeue () {
+	head++;
+	if (head == task_ids.length) {
+	    head = 0;
+	}
+	size--;
+    }
+
+    /**
+     * Returns the identifier of the task at the head of the queue. The queue must not be empty.
+     *
+     * @return the identifier of the first task
+     */
+    public long peekTaskId () {
+	return task_ids[head];
+    }
+
+    /**
+     * Returns the arrival time of the task at the head of the queue. The queue must not be empty.
+     *
+     * @return the arrival time of the first task (in seconds)
+     */
+    public double peekArrivalTime () {
+	return arrival_times[head];
+    }
+
+    /**
+     * Returns the service time of the task at the head of the queue. The queue must not be empty.
+     *
+     * @return the service time of the first task (in seconds)
+     */
+    public double peekServiceTime () {
+	return service_times[head];
+    }
+
+    /**
+     * Returns the number of tasks stored in the queue.
+     *
+     * @return the number of tasks stored in the queue
+     */
+    public int size () {
+	return size;
+    }
+
+    /**
+     * Returns true if the queue stores no task.
+     *
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty () {
+	return size == 0;
+    }
+
+    /**
+     * Doubles the capacity of the buffer, moving the tasks to the beginning of the new arrays.
+     */
+    private void grow () {
+	int capacity = task_ids.length;
+	int new_capacity = capacity < 16 ? 16 : 2 * capacity;
+	task_ids = unwrap(task_ids, new_capacity);
+	arrival_times = unwrap(arrival_times, new_capacity);
+	service_times = unwrap(service_times, new_capacity);
+	head = 0;
+    }
+
+    private long[] unwrap (long[] a, int new_capacity) {
+	long[] b = new long[new_capacity];
+	int first = a.length - head;
+	System.arraycopy(a, head, b, 0, first);
+	System.arraycopy(a, 0, b, first, head);
+	return b;
+    }
+
+    private double[] unwrap (double[] a, int new_capacity) {
+	double[] b = new double[new_capacity];
+	int first = a.length - head;
+	System.arraycopy(a, head, b, 0, first);
+	System.arraycopy(a, 0, b, first, head);
+	return b;
+    }
+}
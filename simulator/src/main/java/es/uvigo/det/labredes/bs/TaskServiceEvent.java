@@ -0,0 +1,98 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class extends Event class to simulate the service of a task.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class TaskServiceEvent extends Event<BaseStation> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The task service time (in seconds).
+     */
+    public double task_stime;
+    /**
+     * The unique identifier of the task served.
+     */
+    public long task_id;
+    /**
+     * The server that serves the task.
+     */
+    public int server;
+
+    /**
+     * Creates a new event representing the service of a task.
+     *
+     * @param t      instant at which the service of the task finishes
+     * @param tid    identifier of the task served
+     * @param stime  time required to serve the task
+     */
+    public TaskServiceEvent (double t, long tid, double stime) {
+	super(t);
+	task_id = tid;
+	task_stime = stime;
+    }
+
+    /**
+     * Compares two task service events.
+     *
+     * @param obj the Object to be compared
+     * @return true if the specified event is equal to this event
+     */
+    public boolean equals (Object obj) {
+	if (obj == this) {
+	    return true;
+	}
+	if (!(obj instanceof TaskServiceEvent)) {
+            return false;
+        }
+	TaskServiceEvent event = (TaskServiceEvent) obj;
+	if (time == event.time && cell == event.cell && server == event.server && task_id == event.task_id) {
+	    return true;
+	}
+	return false;
+    }
+
+    /**
+     * Dispatches this event to the corresponding method of the specified handler.
+     *
+     * @param handler the EventHandler that handles the task service event
+     */
+    public void dispatch (EventHandler handler) {
+	handler.handleTaskServiceEvent(this);
+    }
+
+    /**
+     * Returns a hash code consistent with equals.
+     *
+     * @return a hash code for this task service event
+     */
+    public int hashCode () {
+	return 31 * (31 * (31 * server + cell) + Double.hashCode(time)) + Long.hashCode(task_id);
+    }
+
+    /**
+     * Prints on standard output a message describing the task service event.
+     *
+     * @param bs the base station that handles the event
+     */
+    public void print (BaseStation bs) {
+	if (bs.sim.num_servers > 1) {
+	    System.out.format("%.3f TaskServiceEvent %d %d %d %d%n", time, task_id, bs.queue_size, bs.sleep_to_active_qth, server);
+	} else {
+	    System.out.format("%.3f TaskServiceEvent %d %d %d%n", time, task_id, bs.queue_size, bs.sleep_to_active_qth);
+	}
+    }
+
+    /**
+     * Writes a binary record describing the task service event.
+     *
+     * @param bs    the base station that handles the event
+     * @param trace the TraceWriter of the simulation
+     */
+    public void trace (BaseStation bs, TraceWriter trace) {
+	trace.write(time, TraceWriter.TASK_SERVICE, task_id, bs.queue_size, -1, server);
+    }
+}
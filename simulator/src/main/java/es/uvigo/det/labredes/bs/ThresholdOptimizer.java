@@ -0,0 +1,272 @@
+package es.uvigo.det.labredes.bs;
+
+import java.util.Map;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This class searches the thresholds of the coalescing scheme (inactivity time, queue threshold and time threshold)
+ * that minimize the normalized power consumption subject to a bound on the average task delay or on a delay percentile.
+ *
+ * The search starts from the best thresholds according to the AnalyticalModel, if it applies, and refines them with a
+ * parallel compass search: at every step, the neighbors of the current point along each threshold are simulated in
+ * parallel and the best one becomes the new current point; if none is better, the steps are halved. All candidates are
+ * simulated with the same seed (common random numbers), so they are compared under the same arrivals and service times.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class ThresholdOptimizer {
+    /**
+     * Maximum number of simulated candidates.
+     */
+    public static final int MAX_EVALUATIONS = 200;
+    /**
+     * Ratio between the initial and the minimum steps of the continuous thresholds.
+     */
+    private static final double MIN_STEP_RATIO = 64;
+    /**
+     * Candidate thresholds evaluated by the analytical model.
+     */
+    private static final int MAX_ANALYTICAL_QTH = 128;
+    private static final double[] ANALYTICAL_TIMES = {0, 0.25, 0.5, 1, 2, 4, 8, 16, 32, 64, 128, 256};
+
+    /**
+     * The simulation providing the parameters not optimized.
+     */
+    private Simulation base;
+    /**
+     * Bound on the task delay (in seconds).
+     */
+    private double max_delay;
+    /**
+     * Delay percentile bounded (0 to bound the average task delay).
+     */
+    private double percentile;
+    /**
+     * Results of the simulated candidates, by candidate.
+     */
+    private Map<String, SimulationResults> evaluated;
+    /**
+     * Simulated time of all the candidates (in seconds).
+     */
+    private double simulated_time;
+    /**
+     * Best candidate found (inactivity time, queue threshold and time threshold) and its results.
+     */
+    private double[] best;
+    private SimulationResults best_results;
+    /**
+     * Starting candidate given by the analytical model (null if the model does not apply).
+     */
+    private double[] analytical_start;
+
+    /**
+     * Creates a new optimizer of the thresholds of the specified simulation.
+     *
+     * @param sim   the simulation providing the parameters not optimized
+     * @param delay bound on the task delay (in seconds)
+     * @param p     delay percentile bounded (0 to bound the average task delay)
+     */
+    public ThresholdOptimizer (Simulation sim, double delay, double p) {
+	base = sim;
+	max_delay = delay;
+	percentile = p;
+	evaluated = new HashMap<String, SimulationResults>();
+	simulated_time = 0;
+    }
+
+    /**
+     * Returns a new simulation of the coalescing scheme with the specified thresholds and the base seed.
+     *
+     * @param x the inactivity time, queue threshold and time threshold
+     * @return the simulation for the candidate
+     */
+    public Simulation getSimulation (double[] x) {
+	Simulation sim = base.copy();
+	sim.simulation_verbose = false;
+	sim.trace_file = null;
+	sim.checkpoint_interval = 0;
+	sim.sampling_interval = 0;
+	sim.scheme = "coalescing";
+	sim.dynamic_qth = false;
+	sim.inactivity_t = x[0];
+	sim.sleep_to_active_qth = (int) x[1];
+	sim.sleep_to_active_tth = x[2];
+	return sim;
+    }
+
+    /**
+     * Returns the bounded delay of the specified results.
+     */
+    private double getDelay (SimulationResults r) {
+	return percentile > 0 ? r.delay_histogram.getQuantile(percentile / 100.0) : r.average_task_delay;
+    }
+
+    /**
+     * Returns true if the first results are better than the second ones: meeting the delay bound first,
+     * then lower normalized power consumption if both meet it, or lower delay if neither does.
+     */
+    private boolean isBetter (SimulationResults a, SimulationResults b) {
+	boolean feasible_a = getDelay(a) <= max_delay;
+	boolean feasible_b = getDelay(b) <= max_delay;
+	if (feasible_a != feasible_b) {
+	    return feasible_a;
+	}
+	return feasible_a ? a.norm_power_consumption < b.norm_power_consumption : getDelay(a) < getDelay(b);
+    }
+
+    /**
+     * Returns the thresholds with the lowest analytical power consumption among those whose analytical average
+     * delay meets the bound, or null if the analytical model does not apply or no thresholds meet it.
+     */
+    private double[] getAnalyticalStart () {
+	double[] start = null;
+	double start_power = Double.POSITIVE_INFINITY;
+	for (int qth = 1; qth <= MAX_ANALYTICAL_QTH; qth++) {
+	    for (double inactivity_t : ANALYTICAL_TIMES) {
+		for (double tth : ANALYTICAL_TIMES) {
+		    double[] x = {inactivity_t, qth, tth};
+		    AnalyticalModel model = new AnalyticalModel(getSimulation(x));
+		    if (!model.applicable) {
+			return null;
+		    }
+		    if (model.task_delay <= max_delay && model.power_consumption < start_power) {
+			start = x;
+			start_power = model.power_consumption;
+		    }
+		}
+	    }
+	}
+	return start;
+    }
+
+    /**
+     * Simulates the specified candidates in parallel, skipping those already simulated.
+     *
+     * @param pool       the pool of worker threads
+     * @param candidates the candidates
+     */
+    private void evaluate (ForkJoinPool pool, List<double[]> candidates) {
+	List<Future<SimulationResults>> results = new ArrayList<Future<SimulationResults>>();
+	List<String> keys = new ArrayList<String>();
+	for (double[] x : candidates) {
+	    String key = getKey(x);
+	    if (evaluated.containsKey(key) || keys.contains(key)) {
+		continue;
+	    }
+	    final Simulation sim = getSimulation(x);
+	    keys.add(key);
+	    results.add(pool.submit(new Callable<SimulationResults>() {
+		    public SimulationResults call () {
+			return sim.run();
+		    }
+		}));
+	}
+	try {
+	    for (int i = 0; i < results.size(); i++) {
+		SimulationResults r = results.get(i).get();
+		evaluated.put(keys.get(i), r);
+		simulated_time += r.simulation_length;
+	    }
+	} catch (InterruptedException e) {
+	    EnergyAwareBaseStationSimulator.printError("Optimization interrupted!");
+	} catch (ExecutionException e) {
+	    EnergyAwareBaseStationSimulator.printError("Optimization candidate exception: " + e.getCause());
+	}
+    }
+
+    /**
+     * Returns the key of the specified candidate in the map of simulated candidates.
+     */
+    private static String getKey (double[] x) {
+	return x[0] + " " + (int) x[1] + " " + x[2];
+    }
+
+    /**
+     * Runs the search using the specified number of threads.
+     *
+     * @param threads the number of worker threads
+     */
+    public void run (int threads) {
+	analytical_start = getAnalyticalStart();
+	if (analytical_start != null) {
+	    best = analytical_start;
+	} else {
+	    best = new double[] {base.inactivity_t, base.sleep_to_active_qth, base.sleep_to_active_tth};
+	}
+	double[] steps = {Math.max(1, best[0] / 2), Math.max(1, Math.floor(best[1] / 2)), best[2] > 0 ? best[2] / 2 : max_delay / 4};
+	double[] min_steps = {steps[0] / MIN_STEP_RATIO, 1, steps[2] / MIN_STEP_RATIO};
+
+	ForkJoinPool pool = new ForkJoinPool(threads);
+	try {
+	    List<double[]> candidates = new ArrayList<double[]>();
+	    candidates.add(best);
+	    evaluate(pool, candidates);
+	    best_results = evaluated.get(getKey(best));
+	    while (evaluated.size() < MAX_EVALUATIONS) {
+		// Neighbors of the current point along each threshold
+		candidates.clear();
+		for (int d = 0; d < best.length; d++) {
+		    for (int sign = -1; sign <= 1; sign += 2) {
+			double[] x = best.clone();
+			x[d] = Math.max(d == 1 ? 1 : 0, x[d] + sign * steps[d]);
+			if (d == 1 && base.queue_capacity > 0) {
+			    // The queue threshold cannot exceed the queue capacity
+			    x[d] = Math.min(x[d], base.queue_capacity);
+			}
+			if (x[d] != best[d]) {
+			    candidates.add(x);
+			}
+		    }
+		}
+		evaluate(pool, candidates);
+		double[] next = null;
+		for (double[] x : candidates) {
+		    SimulationResults r = evaluated.get(getKey(x));
+		    if (isBetter(r, best_results)) {
+			next = x;
+			best_results = r;
+		    }
+		}
+		if (next != null) {
+		    best = next;
+		    continue;
+		}
+		// No better neighbor: refine the steps
+		boolean refined = false;
+		for (int d = 0; d < steps.length; d++) {
+		    if (steps[d] > min_steps[d]) {
+			steps[d] = d == 1 ? Math.max(1, Math.floor(steps[d] / 2)) : steps[d] / 2;
+			refined = true;
+		    }
+		}
+		if (!refined) {
+		    break;
+		}
+	    }
+	} finally {
+	    pool.shutdown();
+	}
+    }
+
+    /**
+     * Prints on standard output the best thresholds found and their statistics.
+     */
+    public void printStatistics () {
+	if (analytical_start != null) {
+	    System.out.format("Analytical thresholds: inactivity %.3f queue %d time %.3f %n", analytical_start[0], (int) analytical_start[1], analytical_start[2]);
+	}
+	System.out.format("Optimization: candidates %d simulated time %.0f %n", evaluated.size(), simulated_time);
+	System.out.format("Best thresholds: inactivity %.3f queue %d time %.3f %n", best[0], (int) best[1], best[2]);
+	if (getDelay(best_results) > max_delay) {
+	    System.out.format("No thresholds meet the delay bound: lowest delay %.3f %n", getDelay(best_results));
+	}
+	best_results.print();
+    }
+}
@@ -0,0 +1,134 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads the binary traces written by TraceWriter, mapping them into memory in large chunks.
+ * Its main method converts a trace into CSV.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class TraceReader {
+    /**
+     * Maximum number of bytes mapped at once (a whole number of records).
+     */
+    private static final long CHUNK_SIZE = (Integer.MAX_VALUE / TraceWriter.RECORD_SIZE) * (long) TraceWriter.RECORD_SIZE;
+    /**
+     * Names of the event kinds, indexed by kind.
+     */
+    private static final String[] KIND_NAMES = {"TaskArrivalEvent", "TaskServiceEvent", "TaskDropEvent", "StateTransitionEvent"};
+
+    /**
+     * The channel of the trace file.
+     */
+    private FileChannel channel;
+    /**
+     * The currently mapped chunk and the file position where the next chunk starts.
+     */
+    private MappedByteBuffer chunk;
+    private long next_chunk_position;
+
+    /* Fields of the current record */
+    public double time;
+    public byte kind;
+    public long task_id;
+    public int queue_size;
+    public int state; // BaseStationState ordinal or -1 if none
+    public int server;
+
+    /**
+     * Opens the specified trace file and checks its header.
+     *
+     * @param trace_file the name of the trace file
+     */
+    public TraceReader (String trace_file) {
+	try {
+	    channel = FileChannel.open(Paths.get(trace_file), StandardOpenOption.READ);
+	    chunk = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), TraceWriter.HEADER_SIZE));
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Cannot read trace file!");
+	}
+	if (chunk.remaining() < TraceWriter.HEADER_SIZE || chunk.getInt() != TraceWriter.MAGIC || chunk.getInt() != TraceWriter.RECORD_SIZE) {
+	    EnergyAwareBaseStationSimulator.printError("Invalid trace file!");
+	}
+	next_chunk_position = TraceWriter.HEADER_SIZE;
+    }
+
+    /**
+     * Reads the next record into the public fields.
+     *
+     * @return false if there are no more records
+     */
+    public boolean next () {
+	if (chunk.remaining() < TraceWriter.RECORD_SIZE) {
+	    try {
+		long size = Math.min(channel.size() - next_chunk_position, CHUNK_SIZE);
+		size -= size % TraceWriter.RECORD_SIZE;
+		if (size <= 0) {
+		    return false;
+		}
+		chunk = channel.map(FileChannel.MapMode.READ_ONLY, next_chunk_position, size);
+		next_chunk_position += size;
+	    } catch (IOException e) {
+		EnergyAwareBaseStationSimulator.printError("Error while reading trace file!");
+	    }
+	}
+	time = chunk.getDouble();
+	task_id = chunk.getLong();
+	queue_size = chunk.getInt();
+	kind = chunk.get();
+	state = chunk.get();
+	server = chunk.getShort();
+	return true;
+    }
+
+    /**
+     * Closes the trace file.
+     */
+    public void close () {
+	try {
+	    channel.close();
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while reading trace file!");
+	}
+    }
+
+    /**
+     * Main method: converts a binary trace into CSV.
+     * Usage: java TraceReader trace_file [csv_file]
+     */
+    public static void main (String[] args) {
+	if (args.length < 1 || args.length > 2) {
+	    EnergyAwareBaseStationSimulator.printError("Usage: java TraceReader trace_file [csv_file]");
+	}
+	TraceReader trace = new TraceReader(args[0]);
+	BaseStationState[] states = BaseStationState.values();
+	try {
+	    Writer out = new BufferedWriter(args.length > 1 ? new FileWriter(args[1]) : new OutputStreamWriter(System.out), 1 << 16);
+	    out.write("time,event,task_id,queue_size,state,server\n");
+	    StringBuilder sb = new StringBuilder();
+	    while (trace.next()) {
+		sb.setLength(0);
+		sb.append(trace.time).append(',').append(KIND_NAMES[trace.kind]).append(',');
+		if (trace.task_id >= 0) {
+		    sb.append(trace.task_id);
+		}
+		sb.append(',').append(trace.queue_size).append(',');
+		if (trace.state >= 0) {
+		    sb.append(states[trace.state]);
+		}
+		sb.append(',').append(trace.server).append('\n');
+		out.append(sb);
+	    }
+	    out.close();
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Cannot write CSV file!");
+	}
+	trace.close();
+    }
+}
@@ -0,0 +1,47 @@
+package es.uvigo.det.labredes.bs;
+
+/**
+ * This class extends ServiceTimeGenerator class taking the service times from the
+ * service demands of the tasks replayed by a TraceTaskGenerator.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class TraceServiceTimeGenerator extends ServiceTimeGenerator {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The task generator that replays the trace.
+     */
+    private TraceTaskGenerator trace;
+    /**
+     * Number and sum of the service times returned so far.
+     */
+    private long count;
+    private double sum;
+
+    /**
+     * Creates a new service time generator for the tasks of the specified trace.
+     * Its average service time is the average of the service times returned so far.
+     *
+     * @param tg the task generator that replays the trace
+     */
+    public TraceServiceTimeGenerator (TraceTaskGenerator tg) {
+	super(0);
+	trace = tg;
+	count = 0;
+	sum = 0;
+    }
+
+    /**
+     * Returns the service demand of the last task that arrived.
+     *
+     * @return the time required to serve the task
+     */
+    public double getNextServiceTime () {
+	count++;
+	sum += trace.service_demand;
+	service_time = sum / count;
+	return trace.service_demand;
+    }
+}
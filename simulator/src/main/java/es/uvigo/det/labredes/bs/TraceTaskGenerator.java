@@ -0,0 +1,200 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class extends TaskGenerator class replaying the task arrivals of a traffic trace.
+ * Each task of the trace has an arrival time and a service demand (both in seconds), in non-decreasing
+ * order of arrival time. Binary traces, a header (magic number and record size) followed by one record
+ * of two big-endian doubles per task, are mapped into memory in chunks. CSV traces, one task per line
+ * with its two values separated by a comma or blanks, are parsed as a stream. The trace is never loaded
+ * whole into memory, and no task arrives after its end.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class TraceTaskGenerator extends TaskGenerator {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Magic number at the beginning of every binary trace ("EBTT").
+     */
+    public static final int MAGIC = 0x45425454;
+    /**
+     * Size of the header and of each record of a binary trace (in bytes).
+     */
+    public static final int HEADER_SIZE = 8, RECORD_SIZE = 16;
+    /**
+     * Maximum number of bytes mapped at once (a whole number of records).
+     */
+    private static final long CHUNK_SIZE = 1L << 30;
+
+    /**
+     * The service demand of the last task that arrived (in seconds).
+     */
+    public double service_demand;
+    /**
+     * Number of tasks read from the trace.
+     */
+    private long tasks_read;
+    /**
+     * The channel of a binary trace, its currently mapped chunk and the position where the next chunk starts.
+     */
+    private FileChannel channel;
+    private MappedByteBuffer chunk;
+    private long next_chunk_position;
+    /**
+     * The reader of a CSV trace.
+     */
+    private BufferedReader csv;
+
+    /**
+     * Creates a new task generator that replays the specified trace.
+     * Its arrival rate is the average rate of the tasks replayed so far.
+     *
+     * @param trace_file the name of the trace file
+     * @param binary     true if the trace is binary, false if it is CSV
+     */
+    public TraceTaskGenerator (String trace_file, boolean binary) {
+	super(0);
+	service_demand = 0;
+	tasks_read = 0;
+	try {
+	    if (binary) {
+		channel = FileChannel.open(Paths.get(trace_file), StandardOpenOption.READ);
+		chunk = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), HEADER_SIZE));
+		if (chunk.remaining() < HEADER_SIZE || chunk.getInt() != MAGIC || chunk.getInt() != RECORD_SIZE) {
+		    EnergyAwareBaseStationSimulator.printError("Invalid task trace file!");
+		}
+		next_chunk_position = HEADER_SIZE;
+	    } else {
+		csv = new BufferedReader(new FileReader(trace_file), 1 << 16);
+	    }
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Cannot read task trace file!");
+	}
+    }
+
+    /**
+     * Returns the instant at which the next task of the trace arrives.
+     *
+     * @return instant at which the next task arrives (in seconds), infinite at the end of the trace
+     */
+    public double getNextArrival () {
+	double t;
+	if (chunk != null) {
+	    if (chunk.remaining() < RECORD_SIZE && !mapNextChunk()) {
+		return Double.POSITIVE_INFINITY;
+	    }
+	    t = chunk.getDouble();
+	    service_demand = chunk.getDouble();
+	} else {
+	    t = readCsvTask();
+	}
+	if (t < arrival_time) {
+	    EnergyAwareBaseStationSimulator.printError("Task trace file: decreasing arrival time " + t);
+	}
+	arrival_time = t;
+	tasks_read++;
+	if (arrival_time > 0) {
+	    task_rate = tasks_read / arrival_time;
+	}
+	return arrival_time;
+    }
+
+    /**
+     * Maps the next chunk of the binary trace.
+     *
+     * @return false at the end of the trace
+     */
+    private boolean mapNextChunk () {
+	try {
+	    long size = Math.min(channel.size() - next_chunk_position, CHUNK_SIZE);
+	    size -= size % RECORD_SIZE;
+	    if (size <= 0) {
+		return false;
+	    }
+	    chunk = channel.map(FileChannel.MapMode.READ_ONLY, next_chunk_position, size);
+	    next_chunk_position += size;
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while reading task trace file!");
+	}
+	return true;
+    }
+
+    /**
+     * Reads the next task of the CSV trace, skipping empty lines, comments (starting with #) and a header line.
+     *
+     * @return the arrival time of the task, infinite at the end of the trace
+     */
+    private double readCsvTask () {
+	try {
+	    for (String line; (line = csv.readLine()) != null;) {
+		line = line.trim();
+		if (line.isEmpty() || line.charAt(0) == '#') {
+		    continue;
+		}
+		int i = line.indexOf(',');
+		if (i < 0) {
+		    i = line.indexOf(' ') >= 0 ? line.indexOf(' ') : line.indexOf('\t');
+		}
+		try {
+		    double t = Double.parseDouble(line.substring(0, i).trim());
+		    service_demand = Double.parseDouble(line.substring(i + 1).trim());
+		    return t;
+		} catch (RuntimeException e) {
+		    if (tasks_read > 0) {
+			EnergyAwareBaseStationSimulator.printError("Task trace file: invalid line " + line);
+		    }
+		    // A header line
+		}
+	    }
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while reading task trace file!");
+	}
+	return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Closes the trace file.
+     */
+    public void close () {
+	try {
+	    if (channel != null) {
+		channel.close();
+	    } else {
+		csv.close();
+	    }
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while reading task trace file!");
+	}
+    }
+
+    /**
+     * Main method: converts a CSV task trace into a binary one.
+     * Usage: java TraceTaskGenerator csv_trace_file binary_trace_file
+     */
+    public static void main (String[] args) {
+	if (args.length != 2) {
+	    EnergyAwareBaseStationSimulator.printError("Usage: java TraceTaskGenerator csv_trace_file binary_trace_file");
+	}
+	TraceTaskGenerator trace = new TraceTaskGenerator(args[0], false);
+	try {
+	    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(args[1]), 1 << 16));
+	    out.writeInt(MAGIC);
+	    out.writeInt(RECORD_SIZE);
+	    for (double t; (t = trace.getNextArrival()) != Double.POSITIVE_INFINITY;) {
+		out.writeDouble(t);
+		out.writeDouble(trace.service_demand);
+	    }
+	    out.close();
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Cannot write binary trace file!");
+	}
+	trace.close();
+    }
+}
@@ -0,0 +1,103 @@
+package es.uvigo.det.labredes.bs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes a binary trace of the simulated events.
+ * The trace starts with a header (magic number and record size) followed by one fixed-width record per event:
+ * time (double), task identifier (long, -1 if none), queue size (int), event kind (byte),
+ * new state (byte, BaseStationState ordinal or -1 if none) and server (short), all in big-endian byte order.
+ *
+ * @author Sergio Herreria-Alonso 
+ * @version 1.0
+ */
+public class TraceWriter {
+    /**
+     * Magic number at the beginning of every trace ("EBST").
+     */
+    public static final int MAGIC = 0x45425354;
+    /**
+     * Size of the header and of each record (in bytes).
+     */
+    public static final int HEADER_SIZE = 8, RECORD_SIZE = 24;
+    /**
+     * Event kinds.
+     */
+    public static final byte TASK_ARRIVAL = 0, TASK_SERVICE = 1, TASK_DROP = 2, STATE_TRANSITION = 3;
+    /**
+     * Number of records buffered before writing them to the file.
+     */
+    private static final int BUFFERED_RECORDS = 1 << 16;
+
+    /**
+     * The channel of the trace file.
+     */
+    private FileChannel channel;
+    /**
+     * The buffer where the records are written.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Creates a new trace writer on the specified file, which is overwritten.
+     *
+     * @param trace_file the name of the trace file
+     */
+    public TraceWriter (String trace_file) {
+	try {
+	    channel = FileChannel.open(Paths.get(trace_file), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Cannot create trace file!");
+	}
+	buffer = ByteBuffer.allocateDirect(BUFFERED_RECORDS * RECORD_SIZE);
+	buffer.putInt(MAGIC).putInt(RECORD_SIZE);
+    }
+
+    /**
+     * Writes a record describing an event.
+     *
+     * @param t      instant at which the event occurs
+     * @param kind   kind of event
+     * @param tid    identifier of the task (-1 if none)
+     * @param qsize  amount of tasks in the base station
+     * @param state  ordinal of the new state (-1 if none)
+     * @param server index of the server
+     */
+    public void write (double t, byte kind, long tid, int qsize, int state, int server) {
+	if (buffer.remaining() < RECORD_SIZE) {
+	    flush();
+	}
+	buffer.putDouble(t).putLong(tid).putInt(qsize).put(kind).put((byte) state).putShort((short) server);
+    }
+
+    /**
+     * Writes the buffered records to the trace file.
+     */
+    private void flush () {
+	buffer.flip();
+	try {
+	    while (buffer.hasRemaining()) {
+		channel.write(buffer);
+	    }
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while writing trace file!");
+	}
+	buffer.clear();
+    }
+
+    /**
+     * Writes the buffered records and closes the trace file.
+     */
+    public void close () {
+	flush();
+	try {
+	    channel.close();
+	} catch (IOException e) {
+	    EnergyAwareBaseStationSimulator.printError("Error while writing trace file!");
+	}
+    }
+}
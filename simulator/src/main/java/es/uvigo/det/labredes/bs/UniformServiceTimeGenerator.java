@@ -8,6 +8,8 @@ package es.uvigo.det.labredes.bs;
  * @version 1.0
  */
 public class UniformServiceTimeGenerator extends ServiceTimeGenerator {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The minimum service time (in seconds).
      */